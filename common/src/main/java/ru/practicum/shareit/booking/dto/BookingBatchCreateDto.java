@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingBatchCreateDto {
+
+    @NotEmpty(message = "Bookings cannot be empty")
+    @Size(max = 100, message = "At most 100 bookings per batch")
+    private List<@Valid BookingCreateDto> bookings;
+}
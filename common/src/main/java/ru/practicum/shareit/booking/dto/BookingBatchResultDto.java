@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one entry of {@code POST /bookings/batch}: the HTTP status the entry would
+ * have got from {@code POST /bookings}, with either the created booking or the error.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingBatchResultDto {
+
+    private int index;
+    private int status;
+    private BookingResponseDto booking;
+    private String error;
+}
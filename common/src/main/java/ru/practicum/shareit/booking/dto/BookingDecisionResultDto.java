@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Outcome of one decision of {@code PATCH /bookings/owner/decisions}: the HTTP status
+ * {@code PATCH /bookings/{id}} would have returned, with the new booking status or the error.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingDecisionResultDto {
+
+    private Long bookingId;
+    private int status;
+    private BookingStatus bookingStatus;
+    private String error;
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingDecisionsDto {
+
+    @NotEmpty(message = "Decisions cannot be empty")
+    @Size(max = 100, message = "At most 100 decisions per request")
+    private List<@Valid BookingDecisionDto> decisions;
+}
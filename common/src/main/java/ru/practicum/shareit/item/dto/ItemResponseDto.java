@@ -4,7 +4,6 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
 
 import java.util.List;
@@ -21,6 +20,5 @@ public class ItemResponseDto {
     private Boolean available;
     private Long lastBooking;
     private Long nextBooking;
-    private List<BookingResponseDto> bookings;
     private List<CommentResponseDto> comments;
 }
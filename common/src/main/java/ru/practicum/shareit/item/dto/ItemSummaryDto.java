@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemSummaryDto {
+
+    private Long id;
+    private String name;
+    private String description;
+    private Long ownerId;
+    private Boolean available;
+    private Long lastBooking;
+    private Long nextBooking;
+    private Long commentCount;
+
+    public ItemSummaryDto(Long id, String name, String description, Long ownerId, Boolean available,
+                          Long commentCount) {
+        this(id, name, description, ownerId, available, null, null, commentCount);
+    }
+}
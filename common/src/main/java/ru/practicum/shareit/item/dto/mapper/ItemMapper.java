@@ -1,6 +1,5 @@
 package ru.practicum.shareit.item.dto.mapper;
 
-import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
@@ -22,14 +21,11 @@ public class ItemMapper {
                 item.getAvailable(),
                 null,
                 null,
-                new ArrayList<>(),
                 new ArrayList<>()
         );
     }
 
-    public static ItemResponseDto toResponseDto(Item item,
-                                                List<BookingResponseDto> bookings,
-                                                List<CommentResponseDto> comments) {
+    public static ItemResponseDto toResponseDto(Item item, List<CommentResponseDto> comments) {
         return new ItemResponseDto(
                 item.getId(),
                 item.getName(),
@@ -38,7 +34,6 @@ public class ItemMapper {
                 item.getAvailable(),
                 null,
                 null,
-                bookings,
                 comments
         );
     }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ItemRequestSuggestionDto {
+
+    private Long itemId;
+    private String name;
+    private String description;
+    private Long ownerId;
+    private Double score;
+}
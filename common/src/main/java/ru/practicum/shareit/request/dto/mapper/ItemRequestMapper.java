@@ -7,8 +7,10 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.mapperconfig.MapStructConfig;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.dto.ItemRequestSuggestionDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestSuggestion;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -33,6 +35,11 @@ public interface ItemRequestMapper {
     @Mapping(source = "owner.id", target = "ownerId")
     ItemRequestItemDto toItemRequestItemDto(Item item);
 
+    @Mapping(source = "item.id", target = "itemId")
+    @Mapping(source = "item.name", target = "name")
+    @Mapping(source = "item.description", target = "description")
+    @Mapping(source = "item.owner.id", target = "ownerId")
+    ItemRequestSuggestionDto toItemRequestSuggestionDto(ItemRequestSuggestion suggestion);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(source = "dto.description", target = "description")
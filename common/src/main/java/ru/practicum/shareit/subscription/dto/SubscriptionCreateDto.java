@@ -0,0 +1,16 @@
+package ru.practicum.shareit.subscription.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SubscriptionCreateDto {
+    @NotBlank(message = "Keywords cannot be blank")
+    @Size(max = 200, message = "Keywords cannot be longer than 200 characters")
+    private String keywords;
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.subscription.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SubscriptionMatchDto {
+    private Long id;
+    private Long subscriptionId;
+    private String keywords;
+    private Long itemId;
+    private String itemName;
+    private LocalDateTime created;
+}
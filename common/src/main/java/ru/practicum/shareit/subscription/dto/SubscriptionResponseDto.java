@@ -0,0 +1,16 @@
+package ru.practicum.shareit.subscription.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SubscriptionResponseDto {
+    private Long id;
+    private String keywords;
+    private LocalDateTime created;
+}
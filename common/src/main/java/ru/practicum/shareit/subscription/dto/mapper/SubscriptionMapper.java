@@ -0,0 +1,47 @@
+package ru.practicum.shareit.subscription.dto.mapper;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.subscription.dto.SubscriptionMatchDto;
+import ru.practicum.shareit.subscription.dto.SubscriptionResponseDto;
+import ru.practicum.shareit.subscription.model.Subscription;
+import ru.practicum.shareit.subscription.model.SubscriptionMatch;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+public class SubscriptionMapper {
+    public static SubscriptionResponseDto toResponseDto(Subscription subscription) {
+        return new SubscriptionResponseDto(
+                subscription.getId(),
+                subscription.getKeywords(),
+                subscription.getCreated()
+        );
+    }
+
+    public static SubscriptionMatchDto toMatchDto(SubscriptionMatch match) {
+        return new SubscriptionMatchDto(
+                match.getId(),
+                match.getSubscription().getId(),
+                match.getSubscription().getKeywords(),
+                match.getItem().getId(),
+                match.getItem().getName(),
+                match.getCreated()
+        );
+    }
+
+    public static Subscription toSubscription(String keywords, User subscriber) {
+        Subscription subscription = new Subscription();
+        subscription.setKeywords(keywords);
+        subscription.setSubscriber(subscriber);
+        subscription.setCreated(LocalDateTime.now());
+        return subscription;
+    }
+
+    public static SubscriptionMatch toMatch(Subscription subscription, Item item) {
+        SubscriptionMatch match = new SubscriptionMatch();
+        match.setSubscription(subscription);
+        match.setItem(item);
+        match.setCreated(LocalDateTime.now());
+        return match;
+    }
+}
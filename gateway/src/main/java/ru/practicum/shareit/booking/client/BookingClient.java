@@ -7,11 +7,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingBatchCreateDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionsDto;
 
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Service
@@ -32,6 +35,11 @@ public class BookingClient extends BaseClient {
         return post("", userId, dto);
     }
 
+    public ResponseEntity<Object> createBookings(long userId, BookingBatchCreateDto dto) {
+        log.info("Gateway: create {} bookings in batch for userId: {}", dto.getBookings().size(), userId);
+        return post("/batch", userId, dto);
+    }
+
     public ResponseEntity<Object> approveBooking(long ownerId, long bookingId, boolean approved) {
         log.info("Gateway: approve bookingId: {} by ownerId: {}, approved: {}",
                 bookingId, ownerId, approved);
@@ -39,28 +47,31 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", ownerId, params, null);
     }
 
+    public ResponseEntity<Object> decideBookings(long ownerId, BookingDecisionsDto dto) {
+        log.info("Gateway: {} booking decisions by ownerId: {}", dto.getDecisions().size(), ownerId);
+        return patch("/owner/decisions", ownerId, dto);
+    }
+
     public ResponseEntity<Object> getBookingById(long userId, long bookingId) {
         log.info("Gateway: get booking by id: {} for userId: {}", bookingId, userId);
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookingsByUser(long userId,
-                                                    BookingState state,
-                                                    int page,
-                                                    int size) {
-        log.info("Gateway: list bookings for userId: {}, state: {}, page: {}, size: {}",
-                userId, state, page, size);
-        Map<String, Object> params = Map.of(
-                "state", state.name(),
-                "page", page,
-                "size", size
-        );
-        return get("", userId, params);
+    public ResponseEntity<Object> getBookingsByUser(long userId, BookingState state, String after, int size) {
+        log.info("Gateway: list bookings for userId: {}, state: {}, after: {}, size: {}", userId, state, after, size);
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("state", state.name());
+        params.put("after", after);
+        params.put("size", size);
+        return get(withQuery("", params), userId, params);
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(long ownerId, BookingState state) {
-        log.info("Gateway: list bookings for ownerId: {}, state: {}", ownerId, state);
-        Map<String, Object> params = Map.of("state", state.name());
-        return get("/owner", ownerId, params);
+    public ResponseEntity<Object> getBookingsByOwner(long ownerId, BookingState state, String after, int size) {
+        log.info("Gateway: list bookings for ownerId: {}, state: {}, after: {}, size: {}", ownerId, state, after, size);
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("state", state.name());
+        params.put("after", after);
+        params.put("size", size);
+        return get(withQuery("/owner", params), ownerId, params);
     }
 }
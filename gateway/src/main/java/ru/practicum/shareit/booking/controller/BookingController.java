@@ -1,12 +1,15 @@
 package ru.practicum.shareit.booking.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.client.BookingClient;
+import ru.practicum.shareit.booking.dto.BookingBatchCreateDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionsDto;
 import ru.practicum.shareit.booking.model.BookingState;
 
 
@@ -26,6 +29,16 @@ public class BookingController {
         return client.createBooking(userId, bookingCreateDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestBody @Valid BookingBatchCreateDto bookingBatchCreateDto) {
+
+        log.info("Gateway: create {} bookings in batch userId: {}", bookingBatchCreateDto.getBookings().size(),
+                userId);
+        return client.createBookings(userId, bookingBatchCreateDto);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveBooking(
             @RequestHeader("X-Sharer-User-Id") Long ownerId,
@@ -37,6 +50,15 @@ public class BookingController {
         return client.approveBooking(ownerId, bookingId, approved);
     }
 
+    @PatchMapping("/owner/decisions")
+    public ResponseEntity<Object> decideBookings(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestBody @Valid BookingDecisionsDto bookingDecisionsDto) {
+
+        log.info("Gateway: {} booking decisions by ownerId: {}", bookingDecisionsDto.getDecisions().size(), ownerId);
+        return client.decideBookings(ownerId, bookingDecisionsDto);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBookingById(
             @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -50,20 +72,21 @@ public class BookingController {
     public ResponseEntity<Object> getBookingsByUser(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(defaultValue = "ALL") BookingState state,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") @Positive int size) {
 
-        log.info("Gateway: list bookings for userId: {}, state: {}, page: {}, size: {}",
-                userId, state, page, size);
-        return client.getBookingsByUser(userId, state, page, size);
+        log.info("Gateway: list bookings for userId: {}, state: {}, after: {}, size: {}", userId, state, after, size);
+        return client.getBookingsByUser(userId, state, after, size);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getBookingsByOwner(
             @RequestHeader("X-Sharer-User-Id") Long ownerId,
-            @RequestParam(defaultValue = "ALL") BookingState state) {
+            @RequestParam(defaultValue = "ALL") BookingState state,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") @Positive int size) {
 
-        log.info("Gateway: list bookings for ownerId: {}, state: {}", ownerId, state);
-        return client.getBookingsByOwner(ownerId, state);
+        log.info("Gateway: list bookings for ownerId: {}, state: {}, after: {}, size: {}", ownerId, state, after, size);
+        return client.getBookingsByOwner(ownerId, state, after, size);
     }
 }
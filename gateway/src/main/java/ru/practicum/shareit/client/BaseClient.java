@@ -2,6 +2,8 @@ package ru.practicum.shareit.client;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -79,6 +81,20 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Appends a {@code name={name}} template variable for every parameter with a value and
+     * drops the {@code null} ones from {@code parameters}, so optional parameters are not sent.
+     */
+    protected static String withQuery(String path, Map<String, Object> parameters) {
+        parameters.values().removeIf(Objects::isNull);
+        if (parameters.isEmpty()) {
+            return path;
+        }
+        StringJoiner query = new StringJoiner("&", path + "?", "");
+        parameters.keySet().forEach(name -> query.add(name + "={" + name + "}"));
+        return query.toString();
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
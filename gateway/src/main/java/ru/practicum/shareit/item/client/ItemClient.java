@@ -11,7 +11,10 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.comment.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.model.ItemView;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Service
@@ -42,15 +45,37 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItemsByOwner(long userId) {
-        log.info("Gateway: list items for owner userId: {}", userId);
-        return get("", userId);
+    public ResponseEntity<Object> getItemsByOwner(long userId, ItemView view) {
+        log.info("Gateway: list items for owner userId: {}, view: {}", userId, view);
+        Map<String, Object> params = Map.of("view", view);
+        return get("?view={view}", userId, params);
     }
 
-    public ResponseEntity<Object> searchItems(long userId, String text) {
-        log.info("Gateway: search items text: {} by userId: {}", text, userId);
-        Map<String, Object> params = Map.of("text", text);
-        return get("/search?text={text}", userId, params);
+    public ResponseEntity<Object> searchItems(long userId,
+                                              String text,
+                                              Integer size,
+                                              String after,
+                                              boolean fuzzy,
+                                              LocalDateTime start,
+                                              LocalDateTime end,
+                                              boolean includeWaiting) {
+        log.info("Gateway: search items text: {}, size: {}, after: {}, fuzzy: {} by userId: {}",
+                text, size, after, fuzzy, userId);
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("text", text);
+        params.put("size", size);
+        params.put("after", after);
+        params.put("fuzzy", fuzzy);
+        params.put("start", start);
+        params.put("end", end);
+        params.put("includeWaiting", includeWaiting);
+        return get(withQuery("/search", params), userId, params);
+    }
+
+    public ResponseEntity<Object> suggest(long userId, String prefix, int limit) {
+        log.info("Gateway: suggest items prefix: {}, limit: {} by userId: {}", prefix, limit, userId);
+        Map<String, Object> params = Map.of("prefix", prefix, "limit", limit);
+        return get("/suggest?prefix={prefix}&limit={limit}", userId, params);
     }
 
     public ResponseEntity<Object> createComment(long userId,
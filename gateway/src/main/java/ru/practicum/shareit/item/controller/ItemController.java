@@ -1,15 +1,19 @@
 package ru.practicum.shareit.item.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.comment.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.model.ItemView;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 
 @RestController
@@ -50,23 +54,47 @@ public class ItemController {
 
     @GetMapping
     public ResponseEntity<Object> getItemsByOwner(
-            @RequestHeader("X-Sharer-User-Id") long userId) {
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(defaultValue = "FULL") ItemView view) {
 
-        log.info("Gateway: GET /items userId: {}", userId);
-        return client.getItemsByOwner(userId);
+        log.info("Gateway: GET /items userId: {}, view: {}", userId, view);
+        return client.getItemsByOwner(userId, view);
     }
 
     @GetMapping("/search")
     public ResponseEntity<Object> searchItems(
             @RequestHeader("X-Sharer-User-Id") long userId,
-            @RequestParam String text) {
+            @RequestParam String text,
+            @RequestParam(required = false) @Positive Integer size,
+            @RequestParam(required = false) @Positive Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "false") boolean includeWaiting) {
 
         if (text == null || text.isBlank()) {
             return ResponseEntity.ok(Collections.emptyList());
         }
 
-        log.info("Gateway: GET /items/search text: {} userId: {}", text, userId);
-        return client.searchItems(userId, text);
+        Integer pageSize = size != null ? size : limit;
+        log.info("Gateway: GET /items/search text: {} size: {} after: {} fuzzy: {} start: {} end: {} userId: {}",
+                text, pageSize, after, fuzzy, start, end, userId);
+        return client.searchItems(userId, text, pageSize, after, fuzzy, start, end, includeWaiting);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggest(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") @Positive int limit) {
+
+        if (prefix.isBlank()) {
+            return ResponseEntity.ok(Collections.emptyList());
+        }
+
+        log.info("Gateway: GET /items/suggest prefix: {} limit: {} userId: {}", prefix, limit, userId);
+        return client.suggest(userId, prefix, limit);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -45,4 +45,10 @@ public class ItemRequestClient extends BaseClient {
         log.info("Gateway: get item request id: {} for userId: {}", requestId, userId);
         return get("/" + requestId, userId);
     }
+
+    public ResponseEntity<Object> getSuggestions(long userId, long requestId, int size) {
+        log.info("Gateway: get suggestions for item request id: {}, userId: {}, size: {}", requestId, userId, size);
+        Map<String, Object> params = Map.of("size", size);
+        return get("/" + requestId + "/suggestions?size={size}", userId, params);
+    }
 }
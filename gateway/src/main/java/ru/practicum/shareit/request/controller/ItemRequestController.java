@@ -54,4 +54,14 @@ public class ItemRequestController {
         log.info("Gateway: GET /requests/{} userId: {}", requestId, userId);
         return client.getRequestById(userId, requestId);
     }
+
+    @GetMapping("/{requestId}/suggestions")
+    public ResponseEntity<Object> getSuggestions(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PathVariable long requestId,
+            @Positive @RequestParam(defaultValue = "10") int size) {
+
+        log.info("Gateway: GET /requests/{}/suggestions userId: {}, size: {}", requestId, userId, size);
+        return client.getSuggestions(userId, requestId, size);
+    }
 }
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.subscription.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.subscription.dto.SubscriptionCreateDto;
+
+import java.util.Map;
+
+@Service
+@Slf4j
+public class SubscriptionClient extends BaseClient {
+    private static final String API_PREFIX = "/subscriptions";
+
+    public SubscriptionClient(@Value("${shareit-server.url}") String serverUrl,
+                              RestTemplateBuilder builder) {
+        super(builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                .build());
+    }
+
+    public ResponseEntity<Object> createSubscription(long userId, SubscriptionCreateDto dto) {
+        log.info("Gateway: create subscription by userId: {}", userId);
+        return post("", userId, dto);
+    }
+
+    public ResponseEntity<Object> getSubscriptions(long userId) {
+        log.info("Gateway: get subscriptions for userId: {}", userId);
+        return get("", userId);
+    }
+
+    public ResponseEntity<Object> deleteSubscription(long userId, long subscriptionId) {
+        log.info("Gateway: delete subscription id: {} by userId: {}", subscriptionId, userId);
+        return delete("/" + subscriptionId, userId);
+    }
+
+    public ResponseEntity<Object> getInbox(long userId, int from, int size) {
+        log.info("Gateway: get subscription inbox userId: {}, from: {}, size: {}", userId, from, size);
+        Map<String, Object> params = Map.of("from", from, "size", size);
+        return get("/inbox?from={from}&size={size}", userId, params);
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.subscription.controller;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.subscription.client.SubscriptionClient;
+import ru.practicum.shareit.subscription.dto.SubscriptionCreateDto;
+
+@RestController
+@RequestMapping("/subscriptions")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class SubscriptionController {
+    private final SubscriptionClient client;
+
+    @PostMapping
+    public ResponseEntity<Object> createSubscription(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestBody @Valid SubscriptionCreateDto dto) {
+
+        log.info("Gateway: POST /subscriptions userId: {}, body: {}", userId, dto);
+        return client.createSubscription(userId, dto);
+    }
+
+    @GetMapping
+    public ResponseEntity<Object> getSubscriptions(
+            @RequestHeader("X-Sharer-User-Id") long userId) {
+
+        log.info("Gateway: GET /subscriptions userId: {}", userId);
+        return client.getSubscriptions(userId);
+    }
+
+    @DeleteMapping("/{subscriptionId}")
+    public ResponseEntity<Object> deleteSubscription(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PathVariable long subscriptionId) {
+
+        log.info("Gateway: DELETE /subscriptions/{} userId: {}", subscriptionId, userId);
+        return client.deleteSubscription(userId, subscriptionId);
+    }
+
+    @GetMapping("/inbox")
+    public ResponseEntity<Object> getInbox(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+            @Positive @RequestParam(defaultValue = "10") int size) {
+
+        log.info("Gateway: GET /subscriptions/inbox userId: {}, from: {}, size: {}", userId, from, size);
+        return client.getInbox(userId, from, size);
+    }
+}
@@ -3,9 +3,11 @@ package ru.practicum.shareit;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @SpringBootApplication
+@EnableScheduling
 @ComponentScan(basePackages = {"ru.practicum.shareit.request.dto.mapper", "ru.practicum.shareit.mapperconfig", "ru.practicum.shareit"})
 public class ShareItServer {
 
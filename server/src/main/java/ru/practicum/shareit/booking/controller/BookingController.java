@@ -1,33 +1,55 @@
 package ru.practicum.shareit.booking.controller;
 
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchCreateDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionsDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.pagination.BookingPage;
+import ru.practicum.shareit.booking.pipeline.BookingWritePipeline;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.List;
 
 @RestController
+@Validated
 @RequiredArgsConstructor
 @Slf4j
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final BookingWritePipeline writePipeline;
 
     @PostMapping
     public ResponseEntity<BookingResponseDto> createBooking(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestBody BookingCreateDto bookingCreateDto) {
 
-        BookingResponseDto bookingDto = bookingService.createBooking(userId, bookingCreateDto);
+        BookingResponseDto bookingDto = writePipeline.createBooking(userId, bookingCreateDto);
         return new ResponseEntity<>(bookingDto, HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookingBatchResultDto>> createBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestBody BookingBatchCreateDto bookingBatchCreateDto) {
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(userId,
+                bookingBatchCreateDto.getBookings());
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<BookingResponseDto> approveBooking(
             @RequestHeader("X-Sharer-User-Id") Long ownerId,
@@ -38,6 +60,16 @@ public class BookingController {
         return new ResponseEntity<>(bookingDto, HttpStatus.OK);
     }
 
+    @PatchMapping("/owner/decisions")
+    public ResponseEntity<List<BookingDecisionResultDto>> decideBookings(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestBody BookingDecisionsDto bookingDecisionsDto) {
+
+        List<BookingDecisionResultDto> results = bookingService.decideBookings(ownerId,
+                bookingDecisionsDto.getDecisions());
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<BookingResponseDto> getBookingById(
             @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -51,18 +83,29 @@ public class BookingController {
     public ResponseEntity<List<BookingResponseDto>> getBookingsByUser(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(defaultValue = "ALL") BookingState state,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        List<BookingResponseDto> bookings = bookingService.getBookingsByUser(userId, state, page, size);
-        return new ResponseEntity<>(bookings, HttpStatus.OK);
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") @Positive int size) {
+
+        BookingPage page = bookingService.getBookingsByUser(userId, state, after, size);
+        return toResponse(page);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<List<BookingResponseDto>> getBookingsByOwner(
             @RequestHeader("X-Sharer-User-Id") Long ownerId,
-            @RequestParam(defaultValue = "ALL") BookingState state) {
+            @RequestParam(defaultValue = "ALL") BookingState state,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") @Positive int size) {
+
+        BookingPage page = bookingService.getBookingsByOwner(ownerId, state, after, size);
+        return toResponse(page);
+    }
 
-        List<BookingResponseDto> bookings = bookingService.getBookingsByOwner(ownerId, state);
-        return new ResponseEntity<>(bookings, HttpStatus.OK);
+    private static ResponseEntity<List<BookingResponseDto>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.bookings());
     }
 }
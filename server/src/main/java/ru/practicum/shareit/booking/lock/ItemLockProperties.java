@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.lock;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.booking.locks")
+public class ItemLockProperties {
+
+    /**
+     * Number of in-process lock stripes, rounded up to a power of two. Items that share a
+     * stripe wait for each other, so this bounds contention between unrelated items.
+     */
+    private int stripes = 256;
+
+    /**
+     * How long a booking write waits for its item before giving up with 409.
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /**
+     * Take a PostgreSQL transaction-level advisory lock per item when approving bookings, so
+     * that approvals on several server instances exclude each other. Needs PostgreSQL.
+     */
+    private boolean advisory = false;
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.booking.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes booking writes per item. Item ids are spread over a fixed array of
+ * {@link ReentrantLock} stripes, so writes to different items almost never wait for each
+ * other while writes to the same item run one at a time. A lock is held until the
+ * surrounding transaction completes, so the next writer sees the committed state.
+ * <p>
+ * Stripes only cover this instance. Approvals, the one transition that can make bookings
+ * overlap, additionally take {@code pg_advisory_xact_lock} per item with
+ * {@code shareit.booking.locks.advisory}, which PostgreSQL releases on commit or rollback
+ * and which also covers other server instances.
+ */
+@Component
+@Slf4j
+public class ItemLocks {
+    private static final long ADVISORY_LOCK_CLASS = 0x5348L << 48;
+    private static final long ADVISORY_ID_MASK = (1L << 48) - 1;
+
+    private final ItemLockProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock[] stripes;
+
+    public ItemLocks(ItemLockProperties properties, JdbcTemplate jdbcTemplate) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        int size = Integer.highestOneBit(Math.max(1, properties.getStripes() - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Locks the item until the current transaction completes.
+     *
+     * @throws ConflictException if the item stays locked longer than the configured timeout
+     */
+    public void lock(Long itemId) {
+        requireTransaction();
+        lockStripe(stripeIndex(itemId), itemId);
+    }
+
+    /**
+     * Locks all the items until the current transaction completes. Their stripes are taken in
+     * stripe index order, so two transactions locking several items never wait for each other
+     * in a cycle. A transaction that holds several stripes must take them all here, in one call.
+     *
+     * @throws ConflictException if an item stays locked longer than the configured timeout
+     */
+    public void lockAll(Collection<Long> itemIds) {
+        requireTransaction();
+        Map<Integer, Long> byStripe = new TreeMap<>();
+        for (Long itemId : itemIds) {
+            byStripe.putIfAbsent(stripeIndex(itemId), itemId);
+        }
+        byStripe.forEach(this::lockStripe);
+    }
+
+    /**
+     * Whether {@link #lockAcrossInstances} takes any lock.
+     */
+    public boolean locksAcrossInstances() {
+        return properties.isAdvisory();
+    }
+
+    /**
+     * Takes the PostgreSQL advisory lock of every item, in item id order, until the current
+     * transaction completes. Does nothing unless {@code shareit.booking.locks.advisory} is on.
+     */
+    public void lockAcrossInstances(Collection<Long> itemIds) {
+        if (!properties.isAdvisory()) {
+            return;
+        }
+        itemIds.stream()
+                .distinct()
+                .sorted()
+                .forEach(itemId -> jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null,
+                        advisoryKey(itemId)));
+    }
+
+    /**
+     * Single {@code bigint} advisory key: the lock class in the top 16 bits and the low 48 bits
+     * of the item id below. Ids that share the low bits only wait for each other.
+     */
+    public static long advisoryKey(long itemId) {
+        return ADVISORY_LOCK_CLASS | (itemId & ADVISORY_ID_MASK);
+    }
+
+    public int stripeIndex(Long itemId) {
+        long h = itemId * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (stripes.length - 1);
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Item locks must be taken inside a transaction");
+        }
+    }
+
+    private void lockStripe(int index, Long itemId) {
+        ReentrantLock stripe = stripes[index];
+        try {
+            if (!stripe.tryLock(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ConflictException("Item " + itemId + " is busy, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for item " + itemId);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                stripe.unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,312 @@
+package ru.practicum.shareit.booking.overlap;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-item interval trees of WAITING and APPROVED bookings that end in the future. A tree
+ * is loaded from the database the first time its item is booked and then kept in sync by
+ * {@link ru.practicum.shareit.booking.service.BookingServiceImpl}. A booking the tree does
+ * not know, for example one created on another instance, makes {@link #approve} reload the
+ * item's bookings before checking. Slots that have ended are pruned, and trees left idle for
+ * {@code shareit.booking.overlap.idle-timeout} are dropped.
+ * <p>
+ * Every check and the change it allows happen in one step under the tree's own monitor, and
+ * the change is undone if the transaction rolls back. Two requests on this instance can
+ * therefore never both pass the check for the same period. Approvals do not take the per-item
+ * {@link ru.practicum.shareit.booking.lock.ItemLocks} stripe: the conditional update decides
+ * which request moves a booking out of WAITING, and this check decides whether it may become
+ * APPROVED. Across instances, approvals hold the item's advisory lock and {@link #reload} the
+ * tree first, and on PostgreSQL the {@code ex_bookings_item_approved_period} exclusion
+ * constraint rejects any overlap that still gets through.
+ * <p>
+ * Only APPROVED bookings block a period: a WAITING booking does not stop others from
+ * asking for the same dates, but the owner cannot approve two of them that overlap.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BookingOverlapIndex {
+    private static final List<BookingStatus> TRACKED = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final BookingOverlapProperties properties;
+
+    private final ConcurrentMap<Long, Timeline> timelines = new ConcurrentHashMap<>();
+
+    /**
+     * Reserves {@code [start, end)} for a new WAITING booking of the item.
+     *
+     * @throws ConflictException if the period overlaps an approved booking
+     */
+    public BookingSlot reserve(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Timeline timeline = timelineOf(itemId);
+        synchronized (timeline) {
+            BookingSlot approved = timeline.tree.findOverlap(start, end, BookingOverlapIndex::isApproved);
+            if (approved != null) {
+                throw new ConflictException("Item " + itemId + " is already booked from " + approved.getStart()
+                        + " to " + approved.getEnd());
+            }
+            BookingSlot slot = new BookingSlot(null, start, end, BookingStatus.WAITING);
+            timeline.tree.insert(slot);
+            onRollback(timeline, () -> timeline.remove(slot));
+            return slot;
+        }
+    }
+
+    /**
+     * Links a reserved slot to the id of the booking inserted for it.
+     */
+    public void bind(Long itemId, BookingSlot slot, Long bookingId) {
+        Timeline timeline = timelineOf(itemId);
+        synchronized (timeline) {
+            slot.setBookingId(bookingId);
+            timeline.byBooking.put(bookingId, slot);
+        }
+    }
+
+    /**
+     * Marks the booking approved. A booking the tree does not know is looked up in the database
+     * first, so the check is never skipped. Callers run it before moving the booking out of
+     * WAITING, so a booking loaded here has its committed status.
+     *
+     * @throws ConflictException if the booking overlaps another approved booking of the item
+     */
+    public void approve(Long itemId, Long bookingId) {
+        Timeline timeline = timelineOf(itemId);
+        synchronized (timeline) {
+            BookingSlot slot = trackedOrReloaded(itemId, timeline, bookingId);
+            if (slot == null) {
+                checkEnded(timeline, bookingId);
+                return;
+            }
+            BookingSlot approved = timeline.tree.findOverlap(slot.getStart(), slot.getEnd(),
+                    other -> other != slot && isApproved(other));
+            if (approved != null) {
+                throw new ConflictException("Booking " + bookingId + " overlaps approved booking "
+                        + approved.getBookingId());
+            }
+            BookingStatus previous = slot.getStatus();
+            slot.setStatus(BookingStatus.APPROVED);
+            onRollback(timeline, () -> slot.setStatus(previous));
+        }
+    }
+
+    /**
+     * Adds the item's bookings committed since its tree was loaded, for example by another
+     * server instance. Callers hold the item's cross-instance lock, so the next approval is
+     * checked against every approval committed before it.
+     */
+    public void reload(Long itemId) {
+        Timeline timeline = timelineOf(itemId);
+        synchronized (timeline) {
+            refresh(itemId, timeline);
+        }
+    }
+
+    /**
+     * Frees the period held by a rejected booking.
+     */
+    public void reject(Long itemId, Long bookingId) {
+        Timeline timeline = timelineOf(itemId);
+        synchronized (timeline) {
+            BookingSlot slot = timeline.byBooking.get(bookingId);
+            if (slot == null) {
+                return;
+            }
+            timeline.remove(slot);
+            onRollback(timeline, () -> timeline.add(slot));
+        }
+    }
+
+    /**
+     * Returns the tracked slots of the item in start order.
+     */
+    public List<BookingSlot> slots(Long itemId) {
+        Timeline timeline = timelineOf(itemId);
+        synchronized (timeline) {
+            return timeline.tree.toList();
+        }
+    }
+
+    /**
+     * Drops the trees nobody used for the idle timeout and, from the others, the slots that
+     * have ended. Trees with changes of a running transaction are kept.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking.overlap.sweep-interval:PT1M}")
+    public void sweep() {
+        long idleBefore = System.nanoTime() - properties.getIdleTimeout().toNanos();
+        LocalDateTime now = LocalDateTime.now();
+        int evicted = 0;
+        for (Map.Entry<Long, Timeline> entry : timelines.entrySet()) {
+            Timeline timeline = entry.getValue();
+            synchronized (timeline) {
+                if (timeline.pending == 0 && timeline.lastUsed - idleBefore <= 0) {
+                    timeline.evicted = true;
+                    timelines.remove(entry.getKey(), timeline);
+                    evicted++;
+                } else {
+                    timeline.prune(now);
+                }
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle timelines from overlap index, {} left", evicted, timelines.size());
+        }
+    }
+
+    public int timelineCount() {
+        return timelines.size();
+    }
+
+    /**
+     * Returns the item's loaded tree, marked as used and without slots that have ended.
+     */
+    private Timeline timelineOf(Long itemId) {
+        while (true) {
+            Timeline timeline = timelines.computeIfAbsent(itemId, id -> new Timeline());
+            synchronized (timeline) {
+                if (timeline.evicted) {
+                    continue;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                if (!timeline.loaded) {
+                    List<Booking> bookings = bookingRepository.findByItemIdAndStatusInEndingAfter(itemId,
+                            TRACKED, now);
+                    for (Booking booking : bookings) {
+                        timeline.add(slotOf(booking));
+                    }
+                    timeline.loaded = true;
+                    log.info("Loaded {} bookings of item {} into overlap index", bookings.size(), itemId);
+                } else {
+                    timeline.prune(now);
+                }
+                timeline.lastUsed = System.nanoTime();
+                return timeline;
+            }
+        }
+    }
+
+    /**
+     * Returns the booking's slot, reloading the item's bookings when the tree does not know it.
+     * Returns {@code null} for a booking that has already ended.
+     */
+    private BookingSlot trackedOrReloaded(Long itemId, Timeline timeline, Long bookingId) {
+        BookingSlot slot = timeline.byBooking.get(bookingId);
+        if (slot != null) {
+            return slot;
+        }
+        refresh(itemId, timeline);
+        return timeline.byBooking.get(bookingId);
+    }
+
+    /**
+     * Adds the item's bookings the tree does not know and marks the ones approved elsewhere.
+     * Slots of running transactions are kept as they are.
+     */
+    private void refresh(Long itemId, Timeline timeline) {
+        List<Booking> bookings = bookingRepository.findByItemIdAndStatusInEndingAfter(itemId, TRACKED,
+                LocalDateTime.now());
+        int added = 0;
+        for (Booking booking : bookings) {
+            BookingSlot known = timeline.byBooking.get(booking.getId());
+            if (known == null) {
+                timeline.add(slotOf(booking));
+                added++;
+            } else if (booking.getStatus() == BookingStatus.APPROVED) {
+                known.setStatus(BookingStatus.APPROVED);
+            }
+        }
+        log.info("Reloaded item {} in overlap index, {} bookings were missing", itemId, added);
+    }
+
+    /**
+     * Checks a booking that has already ended, and so is not tracked, against the approved
+     * bookings of the tree.
+     */
+    private void checkEnded(Timeline timeline, Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Booking not found with id " + bookingId));
+        BookingSlot approved = timeline.tree.findOverlap(booking.getStart(), booking.getEnd(),
+                BookingOverlapIndex::isApproved);
+        if (approved != null) {
+            throw new ConflictException("Booking " + bookingId + " overlaps approved booking "
+                    + approved.getBookingId());
+        }
+    }
+
+    private static BookingSlot slotOf(Booking booking) {
+        return new BookingSlot(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+
+    private static boolean isApproved(BookingSlot slot) {
+        return slot.getStatus() == BookingStatus.APPROVED;
+    }
+
+    /**
+     * Undoes a change if the surrounding transaction does not commit. Until it completes the
+     * tree counts as in use and is never evicted.
+     */
+    private static void onRollback(Timeline timeline, Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            timeline.pending++;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    synchronized (timeline) {
+                        if (status != STATUS_COMMITTED) {
+                            action.run();
+                        }
+                        timeline.pending--;
+                    }
+                }
+            });
+        }
+    }
+
+    private static final class Timeline {
+        private final IntervalTree tree = new IntervalTree();
+        private final Map<Long, BookingSlot> byBooking = new HashMap<>();
+        private boolean loaded;
+        private boolean evicted;
+        private int pending;
+        private long lastUsed = System.nanoTime();
+
+        private void add(BookingSlot slot) {
+            tree.insert(slot);
+            if (slot.getBookingId() != null) {
+                byBooking.put(slot.getBookingId(), slot);
+            }
+        }
+
+        private void remove(BookingSlot slot) {
+            tree.remove(slot);
+            if (slot.getBookingId() != null) {
+                byBooking.remove(slot.getBookingId());
+            }
+        }
+
+        private void prune(LocalDateTime now) {
+            tree.startingBefore(now)
+                    .stream()
+                    .filter(slot -> !slot.getEnd().isAfter(now))
+                    .forEach(this::remove);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.overlap;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.booking.overlap")
+public class BookingOverlapProperties {
+
+    /**
+     * Timelines of items nobody booked or decided for this long are dropped and loaded from
+     * the database again on next use.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(30);
+
+    /**
+     * Delay between sweeps that drop idle timelines and slots that have ended.
+     */
+    private Duration sweepInterval = Duration.ofMinutes(1);
+}
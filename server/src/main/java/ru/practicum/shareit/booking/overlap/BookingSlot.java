@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.overlap;
+
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booked period of an item as seen by {@link BookingOverlapIndex}. The booking id is
+ * bound after the booking row is inserted, so slots are told apart by a sequence number.
+ */
+@Getter
+public class BookingSlot {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final long seq = SEQUENCE.incrementAndGet();
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private Long bookingId;
+    private BookingStatus status;
+
+    BookingSlot(Long bookingId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        this.bookingId = bookingId;
+        this.start = start;
+        this.end = end;
+        this.status = status;
+    }
+
+    public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        return start.isBefore(to) && end.isAfter(from);
+    }
+
+    void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    void setStatus(BookingStatus status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,208 @@
+package ru.practicum.shareit.booking.overlap;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * AVL tree of booking slots ordered by start, where every node also keeps the latest end
+ * in its subtree. An overlap lookup skips whole subtrees that end before the queried
+ * period, so it costs O(log n) plus the number of overlapping slots it has to inspect.
+ * Not thread-safe: callers guard it with their own lock.
+ */
+public class IntervalTree {
+    private static final Comparator<BookingSlot> ORDER = Comparator
+            .comparing(BookingSlot::getStart)
+            .thenComparingLong(BookingSlot::getSeq);
+
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(BookingSlot slot) {
+        root = insert(root, slot);
+        size++;
+    }
+
+    public boolean remove(BookingSlot slot) {
+        int before = size;
+        root = remove(root, slot);
+        return size < before;
+    }
+
+    /**
+     * Returns the first slot, in start order, that overlaps {@code [start, end)} and passes
+     * the filter, or {@code null} when there is none.
+     */
+    public BookingSlot findOverlap(LocalDateTime start, LocalDateTime end, Predicate<BookingSlot> filter) {
+        return findOverlap(root, start, end, filter);
+    }
+
+    /**
+     * Returns the slots starting before {@code time} in start order, visiting only those.
+     */
+    public List<BookingSlot> startingBefore(LocalDateTime time) {
+        List<BookingSlot> slots = new ArrayList<>();
+        collectStartingBefore(root, time, slots);
+        return slots;
+    }
+
+    public List<BookingSlot> toList() {
+        List<BookingSlot> slots = new ArrayList<>(size);
+        collect(root, slots);
+        return slots;
+    }
+
+    private BookingSlot findOverlap(Node node, LocalDateTime start, LocalDateTime end,
+                                    Predicate<BookingSlot> filter) {
+        if (node == null || !node.maxEnd.isAfter(start)) {
+            return null;
+        }
+        BookingSlot found = findOverlap(node.left, start, end, filter);
+        if (found != null) {
+            return found;
+        }
+        if (!node.slot.getStart().isBefore(end)) {
+            return null;
+        }
+        if (node.slot.overlaps(start, end) && filter.test(node.slot)) {
+            return node.slot;
+        }
+        return findOverlap(node.right, start, end, filter);
+    }
+
+    private Node insert(Node node, BookingSlot slot) {
+        if (node == null) {
+            return new Node(slot);
+        }
+        if (ORDER.compare(slot, node.slot) < 0) {
+            node.left = insert(node.left, slot);
+        } else {
+            node.right = insert(node.right, slot);
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, BookingSlot slot) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = ORDER.compare(slot, node.slot);
+        if (cmp < 0) {
+            node.left = remove(node.left, slot);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, slot);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.slot = successor.slot;
+            node.right = removeMin(node.right);
+        }
+        return balance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private Node balance(Node node) {
+        node.update();
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private void collect(Node node, List<BookingSlot> slots) {
+        if (node != null) {
+            collect(node.left, slots);
+            slots.add(node.slot);
+            collect(node.right, slots);
+        }
+    }
+
+    private void collectStartingBefore(Node node, LocalDateTime time, List<BookingSlot> slots) {
+        if (node == null) {
+            return;
+        }
+        collectStartingBefore(node.left, time, slots);
+        if (node.slot.getStart().isBefore(time)) {
+            slots.add(node.slot);
+            collectStartingBefore(node.right, time, slots);
+        }
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node {
+        private BookingSlot slot;
+        private Node left;
+        private Node right;
+        private int height = 1;
+        private LocalDateTime maxEnd;
+
+        private Node(BookingSlot slot) {
+            this.slot = slot;
+            this.maxEnd = slot.getEnd();
+        }
+
+        private void update() {
+            height = 1 + Math.max(height(left), height(right));
+            maxEnd = slot.getEnd();
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
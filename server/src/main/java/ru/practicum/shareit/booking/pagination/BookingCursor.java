@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking.pagination;
+
+import ru.practicum.shareit.booking.repository.BookingRow;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor of booking lists: the start and id of the last booking of a page.
+ * Lists are ordered by {@code (start DESC, id DESC)}, so the next page holds the bookings
+ * that sort strictly after that pair.
+ */
+public record BookingCursor(LocalDateTime start, long id) {
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Cursor of the first page: sorts before every real booking.
+     */
+    public static final BookingCursor FIRST = new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+            Long.MAX_VALUE);
+
+    public static BookingCursor of(BookingRow last) {
+        return new BookingCursor(last.start(), last.id());
+    }
+
+    public String encode() {
+        String raw = start.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new BookingCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid booking cursor: " + cursor);
+        }
+    }
+}
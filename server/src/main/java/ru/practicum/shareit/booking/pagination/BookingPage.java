@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.pagination;
+
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.util.List;
+
+/**
+ * One page of a booking list; {@code nextCursor} is {@code null} on the last page.
+ */
+public record BookingPage(List<BookingResponseDto> bookings, String nextCursor) {
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.pipeline;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.booking.pipeline")
+public class BookingPipelineProperties {
+
+    /**
+     * Group concurrent booking inserts into shared transactions. When off, every request
+     * commits on its own.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How long the writer waits for more requests after the first one of a batch arrives.
+     */
+    private Duration window = Duration.ofMillis(5);
+
+    /**
+     * Most requests committed in one transaction; matches {@code hibernate.jdbc.batch_size}.
+     */
+    private int maxBatchSize = 50;
+
+    /**
+     * Requests waiting for the writer beyond this are committed on their own instead.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * How long a caller waits for its batch to commit.
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,235 @@
+package ru.practicum.shareit.booking.pipeline;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.lock.ItemLocks;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Group commit for {@code POST /bookings}. Callers hand their request to a single writer
+ * thread and wait on a future. The writer takes the first queued request, keeps collecting
+ * for {@code window} or until {@code maxBatchSize}, then runs
+ * {@link BookingService#createBooking} for all of them in one transaction. Booking ids come
+ * from a pooled sequence, so the inserts go out as one JDBC batch at commit and the batch
+ * pays for a single commit. The items of the batch are locked up front with
+ * {@link ItemLocks#lockAll}, in the same stripe order batch creation uses, so the writer and
+ * a concurrent batch never wait for each other in a cycle.
+ * <p>
+ * A request rejected by validation does not affect the rest of its batch, since
+ * {@code createBooking} fails before writing anything. If the commit itself fails, the
+ * requests of the batch are retried one transaction each, so one bad row cannot fail the
+ * others.
+ * <p>
+ * A caller that times out withdraws its request, unless the writer has already taken it
+ * into a transaction, and gets 503; a withdrawn request is never committed, so retrying it
+ * cannot create a duplicate. A request the writer has taken is always completed, so its
+ * caller waits for that outcome instead.
+ */
+@Component
+@Slf4j
+public class BookingWritePipeline {
+    private final BookingService bookingService;
+    private final ItemLocks itemLocks;
+    private final BookingPipelineProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingBooking> queue;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public BookingWritePipeline(BookingService bookingService,
+                                ItemLocks itemLocks,
+                                BookingPipelineProperties properties,
+                                PlatformTransactionManager transactionManager) {
+        this.bookingService = bookingService;
+        this.itemLocks = itemLocks;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("booking-writer").daemon().start(this::drain);
+        log.info("Booking write pipeline started: window {}, batch size {}", properties.getWindow(),
+                properties.getMaxBatchSize());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+        }
+    }
+
+    public BookingResponseDto createBooking(Long userId, BookingCreateDto bookingCreateDto) {
+        if (!running) {
+            return bookingService.createBooking(userId, bookingCreateDto);
+        }
+        PendingBooking pending = new PendingBooking(userId, bookingCreateDto);
+        if (!queue.offer(pending)) {
+            log.info("Booking write queue is full, committing request of user {} on its own", userId);
+            return bookingService.createBooking(userId, bookingCreateDto);
+        }
+        try {
+            return pending.result.get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        } catch (TimeoutException e) {
+            if (pending.withdraw()) {
+                throw new ServiceUnavailableException("Booking was not committed within "
+                        + properties.getTimeout() + ", nothing was saved, try again later");
+            }
+            log.info("Booking request of user {} is being committed past the timeout, waiting", userId);
+            try {
+                return pending.result.join();
+            } catch (CompletionException completionException) {
+                throw failure(completionException.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for booking commit", e);
+        }
+    }
+
+    private static RuntimeException failure(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private void drain() {
+        List<PendingBooking> batch = new ArrayList<>(properties.getMaxBatchSize());
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + properties.getWindow().toNanos();
+                while (batch.size() < properties.getMaxBatchSize()) {
+                    PendingBooking next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Throwable e) {
+                log.error("Batch of {} booking requests failed, writer keeps running", batch.size(), e);
+                batch.forEach(pending -> pending.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+        PendingBooking left;
+        while ((left = queue.poll()) != null) {
+            left.result.completeExceptionally(new IllegalStateException("Booking write pipeline stopped"));
+        }
+    }
+
+    private void commit(List<PendingBooking> batch) {
+        batch.removeIf(pending -> !pending.take());
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Outcome> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> {
+                itemLocks.lockAll(batch.stream()
+                        .map(pending -> pending.bookingCreateDto.getItemId())
+                        .filter(Objects::nonNull)
+                        .toList());
+                return batch.stream().map(this::attempt).toList();
+            });
+        } catch (RuntimeException e) {
+            log.info("Batch of {} bookings failed to commit, retrying one by one: {}", batch.size(), e.getMessage());
+            for (PendingBooking pending : batch) {
+                try {
+                    complete(pending, transactionTemplate.execute(status -> attempt(pending)));
+                } catch (RuntimeException retryFailure) {
+                    pending.result.completeExceptionally(retryFailure);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), outcomes.get(i));
+        }
+        log.info("Committed batch of {} booking requests", batch.size());
+    }
+
+    private Outcome attempt(PendingBooking pending) {
+        try {
+            return new Outcome(bookingService.createBooking(pending.userId, pending.bookingCreateDto), null);
+        } catch (RuntimeException e) {
+            return new Outcome(null, e);
+        }
+    }
+
+    private static void complete(PendingBooking pending, Outcome outcome) {
+        if (outcome.error() != null) {
+            pending.result.completeExceptionally(outcome.error());
+        } else {
+            pending.result.complete(outcome.booking());
+        }
+    }
+
+    private record Outcome(BookingResponseDto booking, RuntimeException error) {
+    }
+
+    static final class PendingBooking {
+        private final Long userId;
+        private final BookingCreateDto bookingCreateDto;
+        private final CompletableFuture<BookingResponseDto> result = new CompletableFuture<>();
+        private final AtomicBoolean decided = new AtomicBoolean();
+
+        PendingBooking(Long userId, BookingCreateDto bookingCreateDto) {
+            this.userId = userId;
+            this.bookingCreateDto = bookingCreateDto;
+        }
+
+        /**
+         * Claims the request for a transaction; fails if its caller has withdrawn it.
+         */
+        boolean take() {
+            return decided.compareAndSet(false, true);
+        }
+
+        /**
+         * Withdraws the request and cancels its result; fails if the writer has taken it.
+         */
+        boolean withdraw() {
+            if (!decided.compareAndSet(false, true)) {
+                return false;
+            }
+            result.cancel(false);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.repository;
+
+/**
+ * Latest started ({@code last = true}) or earliest upcoming approved booking of an item.
+ */
+public interface AdjacentBooking {
+    Long getItemId();
+
+    Long getBookingId();
+
+    Boolean getLast();
+}
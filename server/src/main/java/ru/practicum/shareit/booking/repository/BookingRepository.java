@@ -1,8 +1,9 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.model.Booking;
@@ -10,74 +11,183 @@ import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    @Query("SELECT b " +
-           "FROM Booking b " +
-           "WHERE b.booker.id = :bookerId " +
-           "ORDER BY b.start DESC")
-    Page<Booking> findBookingsByBookerId(@Param("bookerId") Long bookerId, Pageable pageable);
-
-    @Query("SELECT b " +
-           "FROM Booking b " +
-           "WHERE b.booker.id = :bookerId AND CURRENT_TIMESTAMP BETWEEN b.start AND b.end " +
-           "ORDER BY b.start DESC")
-    List<Booking> findCurrentBookings(@Param("bookerId") Long bookerId);
-
-    @Query("SELECT b " +
-           "FROM Booking b " +
-           "WHERE b.booker.id = :bookerId AND b.end < CURRENT_TIMESTAMP " +
-           "ORDER BY b.start DESC")
-    List<Booking> findPastBookings(@Param("bookerId") Long bookerId); //
-
-    @Query("SELECT b " +
-           "FROM Booking b " +
-           "WHERE b.booker.id = :bookerId AND b.start > CURRENT_TIMESTAMP " +
-           "ORDER BY b.start DESC")
-    List<Booking> findFutureBookings(@Param("bookerId") Long bookerId);
-
-    @Query("SELECT b " +
-           "FROM Booking b " +
-           "WHERE b.booker.id = :bookerId AND b.status = :status " +
-           "ORDER BY b.start DESC")
-    List<Booking> findBookingsByStatus(@Param("bookerId") Long bookerId, @Param("status") BookingStatus status);
-
-    @Query("SELECT b " +
-           "FROM Booking b " +
-           "JOIN FETCH b.item " +
-           "WHERE b.item.owner.id = :ownerId " +
-           "ORDER BY b.start DESC")
-    List<Booking> findBookingsByOwner(@Param("ownerId") Long ownerId);
-
-    @Query("SELECT b " +
-           "FROM Booking b " +
-           "JOIN FETCH b.item " +
-           "WHERE b.item.owner.id = :ownerId AND CURRENT_TIMESTAMP BETWEEN b.start AND b.end " +
-           "ORDER BY b.start DESC")
-    List<Booking> findCurrentBookingsByOwner(@Param("ownerId") Long ownerId);
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
 
-    @Query("SELECT b " +
+    @Query("SELECT DISTINCT b.item.id " +
            "FROM Booking b " +
-           "JOIN FETCH b.item " +
-           "WHERE b.item.owner.id = :ownerId AND b.end < CURRENT_TIMESTAMP " +
-           "ORDER BY b.start DESC")
-    List<Booking> findPastBookingsByOwner(@Param("ownerId") Long ownerId);
-
+           "WHERE b.item.id IN :itemIds AND b.status IN :statuses AND b.start < :end AND b.end > :start")
+    Set<Long> findItemIdsBookedBetween(@Param("itemIds") Collection<Long> itemIds,
+                                       @Param("start") LocalDateTime start,
+                                       @Param("end") LocalDateTime end,
+                                       @Param("statuses") Collection<BookingStatus> statuses);
+
+    /**
+     * Moves a WAITING booking of an item owned by {@code ownerId} to {@code status}.
+     * Returns 0 when the booking is missing, belongs to another owner or was already decided.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b " +
+           "SET b.status = :status " +
+           "WHERE b.id = :bookingId " +
+           "  AND b.status = 'WAITING' " +
+           "  AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int decideWaiting(@Param("bookingId") Long bookingId,
+                      @Param("ownerId") Long ownerId,
+                      @Param("status") BookingStatus status);
+
+    /**
+     * Set-based variant of {@link #decideWaiting}; returns how many of the bookings changed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b " +
+           "SET b.status = :status " +
+           "WHERE b.id IN :bookingIds " +
+           "  AND b.status = 'WAITING' " +
+           "  AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int decideAllWaiting(@Param("bookingIds") Collection<Long> bookingIds,
+                         @Param("ownerId") Long ownerId,
+                         @Param("status") BookingStatus status);
+
+    @EntityGraph(attributePaths = {"item.owner", "booker"})
     @Query("SELECT b " +
            "FROM Booking b " +
-           "JOIN FETCH b.item " +
-           "WHERE b.item.owner.id = :ownerId AND b.start > CURRENT_TIMESTAMP " +
-           "ORDER BY b.start DESC")
-    List<Booking> findFutureBookingsByOwner(@Param("ownerId") Long ownerId);
+           "WHERE b.id IN :bookingIds")
+    List<Booking> findAllWithItemByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
 
     @Query("SELECT b " +
            "FROM Booking b " +
-           "JOIN FETCH b.item " +
-           "WHERE b.item.owner.id = :ownerId AND b.status = :status " +
-           "ORDER BY b.start DESC")
-    List<Booking> findBookingsByOwnerAndStatus(@Param("ownerId") Long ownerId, @Param("status") BookingStatus status);
+           "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.end > :after")
+    List<Booking> findByItemIdAndStatusInEndingAfter(@Param("itemId") Long itemId,
+                                                     @Param("statuses") Collection<BookingStatus> statuses,
+                                                     @Param("after") LocalDateTime after);
+
+    /*
+     * Booker and owner lists are read in (start DESC, id DESC) keyset order: each page starts
+     * right after the (afterStart, afterId) cursor, see BookingCursor. Limit bounds the rows
+     * read and no count query is issued. Rows are projected into BookingRow, so no entities,
+     * proxies or dirty-check snapshots are created for them.
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.repository.BookingRow(b.id, b.start, b.end, b.status, " +
+           "       i.id, i.name, i.description, i.owner.id, i.available, u.id, u.name, u.email) " +
+           "FROM Booking b JOIN b.item i JOIN b.booker u " +
+           "WHERE u.id = :bookerId " +
+           "  AND (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId)) " +
+           "ORDER BY b.start DESC, b.id DESC")
+    List<BookingRow> findBookingsByBookerId(@Param("bookerId") Long bookerId,
+                                            @Param("afterStart") LocalDateTime afterStart,
+                                            @Param("afterId") Long afterId,
+                                            Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.booking.repository.BookingRow(b.id, b.start, b.end, b.status, " +
+           "       i.id, i.name, i.description, i.owner.id, i.available, u.id, u.name, u.email) " +
+           "FROM Booking b JOIN b.item i JOIN b.booker u " +
+           "WHERE u.id = :bookerId AND CURRENT_TIMESTAMP BETWEEN b.start AND b.end " +
+           "  AND (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId)) " +
+           "ORDER BY b.start DESC, b.id DESC")
+    List<BookingRow> findCurrentBookings(@Param("bookerId") Long bookerId,
+                                         @Param("afterStart") LocalDateTime afterStart,
+                                         @Param("afterId") Long afterId,
+                                         Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.booking.repository.BookingRow(b.id, b.start, b.end, b.status, " +
+           "       i.id, i.name, i.description, i.owner.id, i.available, u.id, u.name, u.email) " +
+           "FROM Booking b JOIN b.item i JOIN b.booker u " +
+           "WHERE u.id = :bookerId AND b.end < CURRENT_TIMESTAMP " +
+           "  AND (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId)) " +
+           "ORDER BY b.start DESC, b.id DESC")
+    List<BookingRow> findPastBookings(@Param("bookerId") Long bookerId,
+                                      @Param("afterStart") LocalDateTime afterStart,
+                                      @Param("afterId") Long afterId,
+                                      Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.booking.repository.BookingRow(b.id, b.start, b.end, b.status, " +
+           "       i.id, i.name, i.description, i.owner.id, i.available, u.id, u.name, u.email) " +
+           "FROM Booking b JOIN b.item i JOIN b.booker u " +
+           "WHERE u.id = :bookerId AND b.start > CURRENT_TIMESTAMP " +
+           "  AND (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId)) " +
+           "ORDER BY b.start DESC, b.id DESC")
+    List<BookingRow> findFutureBookings(@Param("bookerId") Long bookerId,
+                                        @Param("afterStart") LocalDateTime afterStart,
+                                        @Param("afterId") Long afterId,
+                                        Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.booking.repository.BookingRow(b.id, b.start, b.end, b.status, " +
+           "       i.id, i.name, i.description, i.owner.id, i.available, u.id, u.name, u.email) " +
+           "FROM Booking b JOIN b.item i JOIN b.booker u " +
+           "WHERE u.id = :bookerId AND b.status = :status " +
+           "  AND (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId)) " +
+           "ORDER BY b.start DESC, b.id DESC")
+    List<BookingRow> findBookingsByStatus(@Param("bookerId") Long bookerId,
+                                          @Param("status") BookingStatus status,
+                                          @Param("afterStart") LocalDateTime afterStart,
+                                          @Param("afterId") Long afterId,
+                                          Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.booking.repository.BookingRow(b.id, b.start, b.end, b.status, " +
+           "       i.id, i.name, i.description, i.owner.id, i.available, u.id, u.name, u.email) " +
+           "FROM Booking b JOIN b.item i JOIN b.booker u " +
+           "WHERE i.owner.id = :ownerId " +
+           "  AND (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId)) " +
+           "ORDER BY b.start DESC, b.id DESC")
+    List<BookingRow> findBookingsByOwner(@Param("ownerId") Long ownerId,
+                                         @Param("afterStart") LocalDateTime afterStart,
+                                         @Param("afterId") Long afterId,
+                                         Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.booking.repository.BookingRow(b.id, b.start, b.end, b.status, " +
+           "       i.id, i.name, i.description, i.owner.id, i.available, u.id, u.name, u.email) " +
+           "FROM Booking b JOIN b.item i JOIN b.booker u " +
+           "WHERE i.owner.id = :ownerId AND CURRENT_TIMESTAMP BETWEEN b.start AND b.end " +
+           "  AND (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId)) " +
+           "ORDER BY b.start DESC, b.id DESC")
+    List<BookingRow> findCurrentBookingsByOwner(@Param("ownerId") Long ownerId,
+                                                @Param("afterStart") LocalDateTime afterStart,
+                                                @Param("afterId") Long afterId,
+                                                Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.booking.repository.BookingRow(b.id, b.start, b.end, b.status, " +
+           "       i.id, i.name, i.description, i.owner.id, i.available, u.id, u.name, u.email) " +
+           "FROM Booking b JOIN b.item i JOIN b.booker u " +
+           "WHERE i.owner.id = :ownerId AND b.end < CURRENT_TIMESTAMP " +
+           "  AND (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId)) " +
+           "ORDER BY b.start DESC, b.id DESC")
+    List<BookingRow> findPastBookingsByOwner(@Param("ownerId") Long ownerId,
+                                             @Param("afterStart") LocalDateTime afterStart,
+                                             @Param("afterId") Long afterId,
+                                             Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.booking.repository.BookingRow(b.id, b.start, b.end, b.status, " +
+           "       i.id, i.name, i.description, i.owner.id, i.available, u.id, u.name, u.email) " +
+           "FROM Booking b JOIN b.item i JOIN b.booker u " +
+           "WHERE i.owner.id = :ownerId AND b.start > CURRENT_TIMESTAMP " +
+           "  AND (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId)) " +
+           "ORDER BY b.start DESC, b.id DESC")
+    List<BookingRow> findFutureBookingsByOwner(@Param("ownerId") Long ownerId,
+                                               @Param("afterStart") LocalDateTime afterStart,
+                                               @Param("afterId") Long afterId,
+                                               Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.booking.repository.BookingRow(b.id, b.start, b.end, b.status, " +
+           "       i.id, i.name, i.description, i.owner.id, i.available, u.id, u.name, u.email) " +
+           "FROM Booking b JOIN b.item i JOIN b.booker u " +
+           "WHERE i.owner.id = :ownerId AND b.status = :status " +
+           "  AND (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId)) " +
+           "ORDER BY b.start DESC, b.id DESC")
+    List<BookingRow> findBookingsByOwnerAndStatus(@Param("ownerId") Long ownerId,
+                                                  @Param("status") BookingStatus status,
+                                                  @Param("afterStart") LocalDateTime afterStart,
+                                                  @Param("afterId") Long afterId,
+                                                  Limit limit);
 
     @Query("SELECT b " +
            "FROM Booking b " +
@@ -91,10 +201,22 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findAllByItemAndBooker(Item item, User booker);
 
-    @Query("SELECT b " +
-           "FROM Booking b " +
-           "WHERE b.item.id IN :itemIds AND b.status = 'APPROVED' " +
-           "ORDER BY b.start ASC")
-    List<Booking> findApprovedByItemIdsOrderByStartAsc(@Param("itemIds") List<Long> itemIds);
+    /**
+     * Returns at most two approved bookings per item: the latest one started by {@code now}
+     * and the earliest one starting after it.
+     */
+    @Query(value = "SELECT r.item_id AS \"itemId\", r.id AS \"bookingId\", r.started AS \"last\" " +
+                   "FROM (SELECT b.item_id, b.id, b.start_date <= :now AS started, " +
+                   "             ROW_NUMBER() OVER (" +
+                   "                 PARTITION BY b.item_id, b.start_date <= :now " +
+                   "                 ORDER BY CASE WHEN b.start_date <= :now THEN b.start_date END DESC, " +
+                   "                          b.start_date, b.id) AS rn " +
+                   "      FROM bookings b " +
+                   "      WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED'" +
+                   "     ) r " +
+                   "WHERE r.rn = 1",
+           nativeQuery = true)
+    List<AdjacentBooking> findAdjacentApproved(@Param("itemIds") Collection<Long> itemIds,
+                                               @Param("now") LocalDateTime now);
 
 }
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.user.dto.UserResponseDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Booking row of a list query with the item and booker columns it is rendered with,
+ * selected by a JPQL constructor expression instead of hydrating entities.
+ */
+public record BookingRow(Long id,
+                         LocalDateTime start,
+                         LocalDateTime end,
+                         BookingStatus status,
+                         Long itemId,
+                         String itemName,
+                         String itemDescription,
+                         Long ownerId,
+                         Boolean itemAvailable,
+                         Long bookerId,
+                         String bookerName,
+                         String bookerEmail) {
+
+    public BookingResponseDto toResponseDto() {
+        return new BookingResponseDto(
+                id,
+                start,
+                end,
+                new ItemResponseDto(itemId, itemName, itemDescription, ownerId, itemAvailable, null, null,
+                        new ArrayList<>()),
+                new UserResponseDto(bookerId, bookerName, bookerEmail),
+                status
+        );
+    }
+}
@@ -1,8 +1,12 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.pagination.BookingPage;
 
 
 import java.util.List;
@@ -10,11 +14,15 @@ import java.util.List;
 public interface BookingService {
     BookingResponseDto createBooking(Long userId, BookingCreateDto bookingCreateDto);
 
+    List<BookingBatchResultDto> createBookings(Long userId, List<BookingCreateDto> bookingCreateDtos);
+
     BookingResponseDto approveBooking(Long userId, Long bookingId, boolean approved);
 
+    List<BookingDecisionResultDto> decideBookings(Long ownerId, List<BookingDecisionDto> decisions);
+
     BookingResponseDto getBookingById(Long userId, Long bookingId);
 
-    List<BookingResponseDto> getBookingsByUser(Long userId, BookingState state, int page, int size);
+    BookingPage getBookingsByUser(Long userId, BookingState state, String after, int size);
 
-    List<BookingResponseDto> getBookingsByOwner(Long ownerId, BookingState state);
+    BookingPage getBookingsByOwner(Long ownerId, BookingState state, String after, int size);
 }
@@ -2,16 +2,26 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.lock.ItemLocks;
+import ru.practicum.shareit.booking.overlap.BookingOverlapIndex;
+import ru.practicum.shareit.booking.pagination.BookingCursor;
+import ru.practicum.shareit.booking.pagination.BookingPage;
+import ru.practicum.shareit.booking.overlap.BookingSlot;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRow;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
@@ -21,7 +31,14 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,10 +49,18 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingOverlapIndex overlapIndex;
+    private final ItemLocks itemLocks;
 
 
+    /**
+     * Business exceptions are all thrown before anything is written, so they leave the
+     * transaction usable for the other requests of a
+     * {@link ru.practicum.shareit.booking.pipeline.BookingWritePipeline} batch.
+     */
     @Override
-    @Transactional
+    @Transactional(noRollbackFor = {NotFoundException.class, BadRequestException.class,
+            ForbiddenException.class, ConflictException.class})
     public BookingResponseDto createBooking(Long userId, BookingCreateDto bookingCreateDto) {
         User booker = getUserOrThrow(userId);
         Item item = getItemOrThrow(bookingCreateDto.getItemId());
@@ -46,26 +71,142 @@ public class BookingServiceImpl implements BookingService {
         if (item.getOwner().getId().equals(userId)) {
             throw new ForbiddenException("User " + userId + " is owner of item " + item.getId());
         }
+        itemLocks.lock(item.getId());
+        BookingSlot slot = overlapIndex.reserve(item.getId(), bookingCreateDto.getStart(), bookingCreateDto.getEnd());
         Booking booking = BookingMapper.toBooking(bookingCreateDto, item, booker);
         Booking saved = bookingRepository.save(booking);
+        overlapIndex.bind(item.getId(), slot, saved.getId());
         return BookingMapper.toBookingDto(saved);
 
     }
 
+    /**
+     * Items are read with one query and locked together with {@link ItemLocks#lockAll}, which
+     * takes their stripes in stripe order, so concurrent batches and the write pipeline never
+     * wait for each other in a cycle. New rows are saved together and reach the database as
+     * one JDBC batch.
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(Long userId, List<BookingCreateDto> bookingCreateDtos) {
+        User booker = getUserOrThrow(userId);
+        Set<Long> itemIds = bookingCreateDtos.stream()
+                .map(BookingCreateDto::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingCreateDtos.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < bookingCreateDtos.size(); i++) {
+            results[i] = entryFailure(i, bookingCreateDtos.get(i), items, userId);
+            if (results[i] == null) {
+                accepted.add(i);
+            }
+        }
+        itemLocks.lockAll(accepted.stream()
+                .map(i -> bookingCreateDtos.get(i).getItemId())
+                .toList());
+
+        List<Integer> reserved = new ArrayList<>();
+        List<BookingSlot> slots = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i : accepted) {
+            BookingCreateDto dto = bookingCreateDtos.get(i);
+            Item item = items.get(dto.getItemId());
+            try {
+                slots.add(overlapIndex.reserve(item.getId(), dto.getStart(), dto.getEnd()));
+            } catch (ConflictException e) {
+                results[i] = new BookingBatchResultDto(i, HttpStatus.CONFLICT.value(), null, e.getMessage());
+                continue;
+            }
+            reserved.add(i);
+            bookings.add(BookingMapper.toBooking(dto, item, booker));
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        for (int j = 0; j < saved.size(); j++) {
+            Booking booking = saved.get(j);
+            overlapIndex.bind(booking.getItem().getId(), slots.get(j), booking.getId());
+            results[reserved.get(j)] = new BookingBatchResultDto(reserved.get(j), HttpStatus.CREATED.value(),
+                    BookingMapper.toBookingDto(booking), null);
+        }
+        log.info("User {} created {} of {} bookings in batch", userId, saved.size(), bookingCreateDtos.size());
+        return List.of(results);
+    }
+
+    /**
+     * An approval is checked against the overlap index before the booking row is updated, the
+     * same order {@link #decideBookings} uses: the index then reads the booking as WAITING, and
+     * a failed update rolls the in-memory approval back. With cross-instance locks the item is
+     * locked before both, so the two methods never deadlock.
+     */
     @Override
     @Transactional
     public BookingResponseDto approveBooking(Long userId, Long bookingId, boolean approved) {
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
         Booking booking = getBookingOrThrow(bookingId);
-        if ((booking.getStatus() != BookingStatus.WAITING)) {
-            throw new ConflictException("Booking " + bookingId + " is not in waiting state");
+        Long itemId = booking.getItem().getId();
+        if (approved && booking.getStatus() == BookingStatus.WAITING
+                && booking.getItem().getOwner().getId().equals(userId)) {
+            if (itemLocks.locksAcrossInstances()) {
+                lockAcrossInstances(Set.of(itemId));
+            }
+            overlapIndex.approve(itemId, bookingId);
         }
+        if (bookingRepository.decideWaiting(bookingId, userId, status) == 0) {
+            throw decisionFailure(userId, bookingId);
+        }
+        if (!approved) {
+            overlapIndex.reject(itemId, bookingId);
+        }
+        log.info("Booking {} is {} by owner {}", bookingId, status, userId);
+        return BookingMapper.toBookingDto(getBookingOrThrow(bookingId));
+    }
 
-        if (!booking.getItem().getOwner().getId().equals(userId)) {
-            throw new ForbiddenException("User " + userId + " is not the owner of item " + booking.getItem().getId());
+    /**
+     * Bookings are read with one query and every decision is checked in memory, approvals
+     * against the overlap index. The accepted decisions are then written with one conditional
+     * update per target status. If an update touches fewer rows than expected, another request
+     * decided some of the bookings in between, and the whole call fails with 409.
+     */
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> decideBookings(Long ownerId, List<BookingDecisionDto> decisions) {
+        Set<Long> bookingIds = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .collect(Collectors.toSet());
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        if (itemLocks.locksAcrossInstances()) {
+            lockAcrossInstances(decisions.stream()
+                    .filter(decision -> Boolean.TRUE.equals(decision.getApproved()))
+                    .map(decision -> bookings.get(decision.getBookingId()))
+                    .filter(booking -> booking != null && booking.getItem().getOwner().getId().equals(ownerId))
+                    .map(booking -> booking.getItem().getId())
+                    .collect(Collectors.toSet()));
         }
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
 
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        Map<BookingStatus, List<Long>> accepted = new EnumMap<>(BookingStatus.class);
+        Set<Long> seen = new HashSet<>();
+        for (BookingDecisionDto decision : decisions) {
+            BookingDecisionResultDto result = decide(ownerId, decision, bookings.get(decision.getBookingId()), seen);
+            if (result.getStatus() == HttpStatus.OK.value()) {
+                accepted.computeIfAbsent(result.getBookingStatus(), status -> new ArrayList<>())
+                        .add(result.getBookingId());
+            }
+            results.add(result);
+        }
+
+        accepted.forEach((status, ids) -> {
+            if (bookingRepository.decideAllWaiting(ids, ownerId, status) != ids.size()) {
+                throw new ConflictException("Some bookings were decided by another request, retry");
+            }
+        });
+        log.info("Owner {} decided {} of {} bookings", ownerId,
+                accepted.values().stream().mapToInt(List::size).sum(), decisions.size());
+        return results;
     }
 
     @Override
@@ -80,39 +221,130 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    @Transactional
-    public List<BookingResponseDto> getBookingsByUser(Long userId, BookingState state, int page, int size) {
+    public BookingPage getBookingsByUser(Long userId, BookingState state, String after, int size) {
         getUserOrThrow(userId);
-        PageRequest pageR = PageRequest.of(page, size);
-        List<Booking> bookings = switch (state) {
-            case CURRENT -> bookingRepository.findCurrentBookings(userId);
-            case PAST -> bookingRepository.findPastBookings(userId);
-            case FUTURE -> bookingRepository.findFutureBookings(userId);
-            case WAITING -> bookingRepository.findBookingsByStatus(userId, BookingStatus.WAITING);
-            case REJECTED -> bookingRepository.findBookingsByStatus(userId, BookingStatus.REJECTED);
-            default -> bookingRepository.findBookingsByBookerId(userId, pageR).getContent();
-
+        BookingCursor cursor = BookingCursor.decode(after);
+        LocalDateTime afterStart = cursor.start();
+        Long afterId = cursor.id();
+        Limit limit = Limit.of(size + 1);
+        List<BookingRow> bookings = switch (state) {
+            case CURRENT -> bookingRepository.findCurrentBookings(userId, afterStart, afterId, limit);
+            case PAST -> bookingRepository.findPastBookings(userId, afterStart, afterId, limit);
+            case FUTURE -> bookingRepository.findFutureBookings(userId, afterStart, afterId, limit);
+            case WAITING -> bookingRepository.findBookingsByStatus(userId, BookingStatus.WAITING,
+                    afterStart, afterId, limit);
+            case REJECTED -> bookingRepository.findBookingsByStatus(userId, BookingStatus.REJECTED,
+                    afterStart, afterId, limit);
+            default -> bookingRepository.findBookingsByBookerId(userId, afterStart, afterId, limit);
         };
-        return bookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+        return toPage(bookings, size);
     }
 
     @Override
-    @Transactional
-    public List<BookingResponseDto> getBookingsByOwner(Long ownerId, BookingState state) {
+    public BookingPage getBookingsByOwner(Long ownerId, BookingState state, String after, int size) {
         getUserOrThrow(ownerId);
-        List<Booking> bookings = switch (state) {
-            case CURRENT -> bookingRepository.findCurrentBookingsByOwner(ownerId);
-            case PAST -> bookingRepository.findPastBookingsByOwner(ownerId);
-            case FUTURE -> bookingRepository.findFutureBookingsByOwner(ownerId);
-            case WAITING -> bookingRepository.findBookingsByOwnerAndStatus(ownerId, BookingStatus.WAITING);
-            case REJECTED -> bookingRepository.findBookingsByOwnerAndStatus(ownerId, BookingStatus.REJECTED);
-            default -> bookingRepository.findBookingsByOwner(ownerId);
+        BookingCursor cursor = BookingCursor.decode(after);
+        LocalDateTime afterStart = cursor.start();
+        Long afterId = cursor.id();
+        Limit limit = Limit.of(size + 1);
+        List<BookingRow> bookings = switch (state) {
+            case CURRENT -> bookingRepository.findCurrentBookingsByOwner(ownerId, afterStart, afterId, limit);
+            case PAST -> bookingRepository.findPastBookingsByOwner(ownerId, afterStart, afterId, limit);
+            case FUTURE -> bookingRepository.findFutureBookingsByOwner(ownerId, afterStart, afterId, limit);
+            case WAITING -> bookingRepository.findBookingsByOwnerAndStatus(ownerId, BookingStatus.WAITING,
+                    afterStart, afterId, limit);
+            case REJECTED -> bookingRepository.findBookingsByOwnerAndStatus(ownerId, BookingStatus.REJECTED,
+                    afterStart, afterId, limit);
+            default -> bookingRepository.findBookingsByOwner(ownerId, afterStart, afterId, limit);
         };
-        return bookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+        return toPage(bookings, size);
+    }
+
+    /**
+     * Turns {@code size + 1} rows into a page; the extra row only signals that a next page exists.
+     */
+    private BookingPage toPage(List<BookingRow> bookings, int size) {
+        String nextCursor = null;
+        if (bookings.size() > size) {
+            bookings = bookings.subList(0, size);
+            nextCursor = BookingCursor.of(bookings.getLast()).encode();
+        }
+        return new BookingPage(bookings.stream().map(BookingRow::toResponseDto).toList(), nextCursor);
+    }
+
+    private BookingBatchResultDto entryFailure(int index, BookingCreateDto dto, Map<Long, Item> items,
+                                               Long userId) {
+        Item item = items.get(dto.getItemId());
+        if (item == null) {
+            return new BookingBatchResultDto(index, HttpStatus.NOT_FOUND.value(), null,
+                    "Item not found with id " + dto.getItemId());
+        }
+        if (dto.getStart() == null || dto.getEnd() == null || !dto.getEnd().isAfter(dto.getStart())) {
+            return new BookingBatchResultDto(index, HttpStatus.BAD_REQUEST.value(), null,
+                    "End time must be after start time");
+        }
+        if (!item.getAvailable()) {
+            return new BookingBatchResultDto(index, HttpStatus.BAD_REQUEST.value(), null,
+                    "Item " + item.getId() + " is not available");
+        }
+        if (item.getOwner().getId().equals(userId)) {
+            return new BookingBatchResultDto(index, HttpStatus.FORBIDDEN.value(), null,
+                    "User " + userId + " is owner of item " + item.getId());
+        }
+        return null;
+    }
+
+    private BookingDecisionResultDto decide(Long ownerId, BookingDecisionDto decision, Booking booking,
+                                            Set<Long> seen) {
+        Long bookingId = decision.getBookingId();
+        if (booking == null) {
+            return new BookingDecisionResultDto(bookingId, HttpStatus.NOT_FOUND.value(), null,
+                    "Booking not found with id " + bookingId);
+        }
+        Long itemId = booking.getItem().getId();
+        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+            return new BookingDecisionResultDto(bookingId, HttpStatus.FORBIDDEN.value(), null,
+                    "User " + ownerId + " is not the owner of item " + itemId);
+        }
+        if (!seen.add(bookingId)) {
+            return new BookingDecisionResultDto(bookingId, HttpStatus.BAD_REQUEST.value(), null,
+                    "Booking " + bookingId + " is decided more than once");
+        }
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            return new BookingDecisionResultDto(bookingId, HttpStatus.CONFLICT.value(), null,
+                    "Booking " + bookingId + " is not in waiting state");
+        }
+        try {
+            if (decision.getApproved()) {
+                overlapIndex.approve(itemId, bookingId);
+            } else {
+                overlapIndex.reject(itemId, bookingId);
+            }
+        } catch (ConflictException e) {
+            return new BookingDecisionResultDto(bookingId, HttpStatus.CONFLICT.value(), null, e.getMessage());
+        }
+        BookingStatus status = decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        return new BookingDecisionResultDto(bookingId, HttpStatus.OK.value(), status, null);
+    }
+
+    /**
+     * Locks the items on every server instance and brings their overlap trees up to date with
+     * the approvals the other instances have committed.
+     */
+    private void lockAcrossInstances(Set<Long> itemIds) {
+        itemLocks.lockAcrossInstances(itemIds);
+        itemIds.forEach(overlapIndex::reload);
+    }
+
+    /**
+     * Works out why the conditional update touched no row. Only runs on the failure path.
+     */
+    private RuntimeException decisionFailure(Long userId, Long bookingId) {
+        Booking booking = getBookingOrThrow(bookingId);
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
+            return new ForbiddenException("User " + userId + " is not the owner of item " + booking.getItem().getId());
+        }
+        return new ConflictException("Booking " + bookingId + " is not in waiting state");
     }
 
     private Booking getBookingOrThrow(Long id) {
@@ -2,6 +2,7 @@ package ru.practicum.shareit.handler;
 
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -9,6 +10,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.errorresponse.ErrorResponse;
 import ru.practicum.shareit.exception.*;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,6 +19,7 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 @Slf4j
 public class ServerErrorHandler {
+    private static final String EXCLUSION_VIOLATION = "23P01";
 
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ErrorResponse> handleNotFoundException(NotFoundException e) {
@@ -42,6 +45,26 @@ public class ServerErrorHandler {
         return createErrorResponse(errors, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException e) {
+        log.error("ServiceUnavailableException occurred", e);
+        List<String> errors = new ArrayList<>();
+        errors.add("Service unavailable: " + e.getMessage());
+        return createErrorResponse(errors, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Approved bookings of an item are kept apart by an exclusion constraint on PostgreSQL;
+     * a violation means another approval for the same period committed first.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException e) {
+        if (hasSqlState(e, EXCLUSION_VIOLATION)) {
+            return handleConflictException(new ConflictException("Booking period overlaps an approved booking"));
+        }
+        return handleAllExceptions(e);
+    }
+
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ErrorResponse> handleBadRequestException(BadRequestException e) {
         log.error("BadRequestException occurred", e);
@@ -69,6 +92,15 @@ public class ServerErrorHandler {
         return createErrorResponse(errors, HttpStatus.BAD_REQUEST);
     }
 
+    private static boolean hasSqlState(Throwable e, String sqlState) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlState.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private ResponseEntity<ErrorResponse> createErrorResponse(List<String> errors, HttpStatus status) {
         if (errors != null && !errors.isEmpty()) {
             ErrorResponse response;
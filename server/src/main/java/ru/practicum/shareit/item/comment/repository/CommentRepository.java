@@ -1,12 +1,25 @@
 package ru.practicum.shareit.item.comment.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.comment.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(Long itemId);
+    @Query("SELECT new ru.practicum.shareit.item.comment.repository.CommentRow(c.item.id, c.id, c.text, " +
+           "       a.name, c.created) " +
+           "FROM Comment c JOIN c.author a " +
+           "WHERE c.item.id = :itemId " +
+           "ORDER BY c.id")
+    List<CommentRow> findRowsByItemId(@Param("itemId") Long itemId);
 
-    List<Comment> findByItemIdIn(List<Long> itemIds);
+    @Query("SELECT new ru.practicum.shareit.item.comment.repository.CommentRow(c.item.id, c.id, c.text, " +
+           "       a.name, c.created) " +
+           "FROM Comment c JOIN c.author a " +
+           "WHERE c.item.id IN :itemIds " +
+           "ORDER BY c.id")
+    List<CommentRow> findRowsByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 }
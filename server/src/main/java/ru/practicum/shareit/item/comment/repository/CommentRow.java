@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.comment.repository;
+
+import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Comment columns of an item's comment list, selected without hydrating the comment or its author.
+ */
+public record CommentRow(Long itemId, Long id, String text, String authorName, LocalDateTime created) {
+
+    public CommentResponseDto toResponseDto() {
+        return new CommentResponseDto(id, text, authorName, created);
+    }
+}
@@ -12,6 +12,7 @@ import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
 import ru.practicum.shareit.item.comment.dto.mapper.CommentMapper;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.comment.repository.CommentRow;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
@@ -48,12 +49,12 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<CommentResponseDto> getCommentsForItem(Long itemId) {
-        List<Comment> comments = commentRepository.findAllByItemId(itemId);
+        List<CommentRow> comments = commentRepository.findRowsByItemId(itemId);
         return comments
                 .stream()
-                .map(CommentMapper::toCommentDto)
+                .map(CommentRow::toResponseDto)
                 .collect(Collectors.toList());
     }
 
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.controller;
 
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comment.dto.CommentCreateDto;
 import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
@@ -11,16 +14,23 @@ import ru.practicum.shareit.item.comment.service.CommentService;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.model.ItemView;
+import ru.practicum.shareit.item.search.ItemSearchPage;
+import ru.practicum.shareit.item.search.ItemSearchQuery;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 
 @RestController
+@Validated
 @RequiredArgsConstructor
 @Slf4j
 @RequestMapping("/items")
 public class ItemController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ItemService itemService;
     private final CommentService commentService;
 
@@ -46,23 +56,52 @@ public class ItemController {
     public ResponseEntity<ItemResponseDto> getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                        @PathVariable Long itemId) {
         log.info("Server: Request to get item by id: {}", itemId);
-        ItemResponseDto item = itemService.getItemById(itemId);
+        ItemResponseDto item = itemService.getItemById(userId, itemId);
         return new ResponseEntity<>(item, HttpStatus.OK);
     }
 
     @GetMapping
-    public ResponseEntity<List<ItemResponseDto>> getItemsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Server: Request to get items for owner id: {}", userId);
-        List<ItemResponseDto> items = itemService.getItemsByOwnerId(userId);
+    public ResponseEntity<List<?>> getItemsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @RequestParam(defaultValue = "FULL") ItemView view) {
+        log.info("Server: Request to get items for owner id: {}, view: {}", userId, view);
+        List<?> items = view == ItemView.SUMMARY
+                ? itemService.getItemSummariesByOwnerId(userId)
+                : itemService.getItemsByOwnerId(userId);
         return new ResponseEntity<>(items, HttpStatus.OK);
     }
 
     @GetMapping("/search")
     public ResponseEntity<List<ItemResponseDto>> searchItems(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                             @RequestParam String text) {
-        log.info("Server: Request to search items with text: {}", text);
-        List<ItemResponseDto> items = itemService.searchItems(text);
-        return new ResponseEntity<>(items, HttpStatus.OK);
+                                                             @RequestParam String text,
+                                                             @RequestParam(required = false) @Positive Integer size,
+                                                             @RequestParam(required = false) @Positive Integer limit,
+                                                             @RequestParam(required = false) String after,
+                                                             @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                             @RequestParam(required = false)
+                                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                             LocalDateTime start,
+                                                             @RequestParam(required = false)
+                                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                             LocalDateTime end,
+                                                             @RequestParam(defaultValue = "false") boolean includeWaiting) {
+        ItemSearchQuery query = new ItemSearchQuery(text, size != null ? size : limit, fuzzy,
+                start, end, includeWaiting, after);
+        log.info("Server: Request to search items with query: {}", query);
+        ItemSearchPage page = itemService.searchItems(query);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggest(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @RequestParam String prefix,
+                                                @RequestParam(defaultValue = "10") @Positive int limit) {
+        log.info("Server: Request to suggest item names for prefix: {}", prefix);
+        List<String> suggestions = itemService.suggest(prefix, limit);
+        return new ResponseEntity<>(suggestions, HttpStatus.OK);
     }
 
     @PostMapping("/{itemId}/comment")
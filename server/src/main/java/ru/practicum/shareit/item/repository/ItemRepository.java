@@ -1,24 +1,157 @@
 package ru.practicum.shareit.item.repository;
 
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByOwnerId(Long ownerId);
+    @Query("SELECT new ru.practicum.shareit.item.repository.ItemRow(i.id, i.name, i.description, i.owner.id, " +
+           "       i.available) " +
+           "FROM Item i " +
+           "WHERE i.owner.id = :ownerId " +
+           "ORDER BY i.id")
+    List<ItemRow> findRowsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemSummaryDto(i.id, i.name, i.description, i.owner.id, " +
+           "       i.available, (SELECT COUNT(c) FROM Comment c WHERE c.item = i)) " +
+           "FROM Item i " +
+           "WHERE i.owner.id = :ownerId " +
+           "ORDER BY i.id")
+    List<ItemSummaryDto> findSummariesByOwnerId(@Param("ownerId") Long ownerId);
 
-    @Query("SELECT i " +
+    @Query("SELECT i.id AS id, CASE WHEN i.name ILIKE %:text% THEN 1.0 ELSE 0.0 END AS score " +
            "FROM Item i " +
-           "WHERE (i.name ILIKE %:text% OR i.description ILIKE %:text%) AND i.available = true")
-    List<Item> searchItems(@Param("text") String text);
+           "WHERE (i.name ILIKE %:text% OR i.description ILIKE %:text%) AND i.available = true " +
+           "  AND (CASE WHEN i.name ILIKE %:text% THEN 1.0 ELSE 0.0 END < :afterScore " +
+           "       OR (CASE WHEN i.name ILIKE %:text% THEN 1.0 ELSE 0.0 END = :afterScore AND i.id > :afterId)) " +
+           "ORDER BY CASE WHEN i.name ILIKE %:text% THEN 1.0 ELSE 0.0 END DESC, i.id")
+    List<ScoredItemId> searchItems(@Param("text") String text,
+                                   @Param("afterScore") double afterScore,
+                                   @Param("afterId") long afterId,
+                                   Limit limit);
+
+    @Query("SELECT i.id AS id, CASE WHEN i.name ILIKE %:text% THEN 1.0 ELSE 0.0 END AS score " +
+           "FROM Item i " +
+           "WHERE (i.name ILIKE %:text% OR i.description ILIKE %:text%) AND i.available = true " +
+           "  AND NOT EXISTS (SELECT b.id FROM Booking b " +
+           "                  WHERE b.item = i AND b.status IN :statuses " +
+           "                    AND b.start < :end AND b.end > :start) " +
+           "  AND (CASE WHEN i.name ILIKE %:text% THEN 1.0 ELSE 0.0 END < :afterScore " +
+           "       OR (CASE WHEN i.name ILIKE %:text% THEN 1.0 ELSE 0.0 END = :afterScore AND i.id > :afterId)) " +
+           "ORDER BY CASE WHEN i.name ILIKE %:text% THEN 1.0 ELSE 0.0 END DESC, i.id")
+    List<ScoredItemId> searchItemsFreeBetween(@Param("text") String text,
+                                              @Param("start") LocalDateTime start,
+                                              @Param("end") LocalDateTime end,
+                                              @Param("statuses") Collection<BookingStatus> statuses,
+                                              @Param("afterScore") double afterScore,
+                                              @Param("afterId") long afterId,
+                                              Limit limit);
+
+    @Query(value = "SELECT s.id, s.score " +
+                   "FROM (SELECT i.id, " +
+                   "       CAST(ts_rank(i.search_vector, plainto_tsquery('simple', :text)) AS DOUBLE PRECISION) " +
+                   "       + CASE WHEN i.name ILIKE CONCAT('%', :text, '%') THEN 1 ELSE 0 END AS score " +
+                   "      FROM items i " +
+                   "      WHERE i.available = true " +
+                   "        AND (i.search_vector @@ plainto_tsquery('simple', :text) " +
+                   "             OR i.name ILIKE CONCAT('%', :text, '%') " +
+                   "             OR i.description ILIKE CONCAT('%', :text, '%'))" +
+                   "     ) s " +
+                   "WHERE s.score < :afterScore OR (s.score = :afterScore AND s.id > :afterId) " +
+                   "ORDER BY s.score DESC, s.id " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<ScoredItemId> searchItemsFullText(@Param("text") String text,
+                                           @Param("afterScore") double afterScore,
+                                           @Param("afterId") long afterId,
+                                           @Param("limit") int limit);
+
+    @Query(value = "SELECT s.id, s.score " +
+                   "FROM (SELECT i.id, " +
+                   "       CAST(ts_rank(i.search_vector, plainto_tsquery('simple', :text)) AS DOUBLE PRECISION) " +
+                   "       + CASE WHEN i.name ILIKE CONCAT('%', :text, '%') THEN 1 ELSE 0 END AS score " +
+                   "      FROM items i " +
+                   "      WHERE i.available = true " +
+                   "        AND (i.search_vector @@ plainto_tsquery('simple', :text) " +
+                   "             OR i.name ILIKE CONCAT('%', :text, '%') " +
+                   "             OR i.description ILIKE CONCAT('%', :text, '%'))" +
+                   "        AND NOT EXISTS (SELECT 1 FROM bookings b " +
+                   "                        WHERE b.item_id = i.id AND b.status IN (:statuses) " +
+                   "                          AND b.start_date < :end AND b.end_date > :start)" +
+                   "     ) s " +
+                   "WHERE s.score < :afterScore OR (s.score = :afterScore AND s.id > :afterId) " +
+                   "ORDER BY s.score DESC, s.id " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<ScoredItemId> searchItemsFullTextFreeBetween(@Param("text") String text,
+                                                      @Param("start") LocalDateTime start,
+                                                      @Param("end") LocalDateTime end,
+                                                      @Param("statuses") Collection<String> statuses,
+                                                      @Param("afterScore") double afterScore,
+                                                      @Param("afterId") long afterId,
+                                                      @Param("limit") int limit);
+
+    @Query(value = "SELECT s.id, s.score " +
+                   "FROM (SELECT i.id, " +
+                   "       CAST(GREATEST(word_similarity(:text, i.name), word_similarity(:text, i.description)) " +
+                   "            AS DOUBLE PRECISION) AS score " +
+                   "      FROM items i " +
+                   "      WHERE i.available = true " +
+                   "        AND (:text <% i.name OR :text <% i.description)" +
+                   "     ) s " +
+                   "WHERE s.score < :afterScore OR (s.score = :afterScore AND s.id > :afterId) " +
+                   "ORDER BY s.score DESC, s.id " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<ScoredItemId> searchItemsFuzzy(@Param("text") String text,
+                                        @Param("afterScore") double afterScore,
+                                        @Param("afterId") long afterId,
+                                        @Param("limit") int limit);
+
+    @Query(value = "SELECT s.id, s.score " +
+                   "FROM (SELECT i.id, " +
+                   "       CAST(GREATEST(word_similarity(:text, i.name), word_similarity(:text, i.description)) " +
+                   "            AS DOUBLE PRECISION) AS score " +
+                   "      FROM items i " +
+                   "      WHERE i.available = true " +
+                   "        AND (:text <% i.name OR :text <% i.description)" +
+                   "        AND NOT EXISTS (SELECT 1 FROM bookings b " +
+                   "                        WHERE b.item_id = i.id AND b.status IN (:statuses) " +
+                   "                          AND b.start_date < :end AND b.end_date > :start)" +
+                   "     ) s " +
+                   "WHERE s.score < :afterScore OR (s.score = :afterScore AND s.id > :afterId) " +
+                   "ORDER BY s.score DESC, s.id " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<ScoredItemId> searchItemsFuzzyFreeBetween(@Param("text") String text,
+                                                   @Param("start") LocalDateTime start,
+                                                   @Param("end") LocalDateTime end,
+                                                   @Param("statuses") Collection<String> statuses,
+                                                   @Param("afterScore") double afterScore,
+                                                   @Param("afterId") long afterId,
+                                                   @Param("limit") int limit);
 
     List<Item> findByItemRequestId(Long itemRequestId);
 
-    List<Item> findAllByItemRequestIdIn(Collection<Long> requestIds);
+    @Query("SELECT new ru.practicum.shareit.item.repository.RequestItemRow(i.itemRequest.id, i.id, i.name, " +
+           "       i.owner.id) " +
+           "FROM Item i " +
+           "WHERE i.itemRequest.id IN :requestIds " +
+           "ORDER BY i.id")
+    List<RequestItemRow> findRequestItemRows(@Param("requestIds") Collection<Long> requestIds);
+
+    List<Item> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT i.id FROM Item i WHERE i.available = true")
+    List<Long> findAvailableIds();
 }
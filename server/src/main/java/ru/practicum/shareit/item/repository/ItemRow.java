@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+
+import java.util.List;
+
+/**
+ * Item columns of the owner item list, selected without hydrating the item.
+ */
+public record ItemRow(Long id, String name, String description, Long ownerId, Boolean available) {
+
+    public ItemResponseDto toResponseDto(List<CommentResponseDto> comments) {
+        return new ItemResponseDto(id, name, description, ownerId, available, null, null, comments);
+    }
+}
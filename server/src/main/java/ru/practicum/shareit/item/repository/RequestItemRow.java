@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.dto.ItemRequestItemDto;
+
+/**
+ * Item answering an item request, as listed under that request.
+ */
+public record RequestItemRow(Long requestId, Long id, String name, Long ownerId) {
+
+    public ItemRequestItemDto toItemDto() {
+        return new ItemRequestItemDto(id, name, ownerId);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.repository;
+
+/**
+ * Id and relevance score of an item matched by a search query.
+ */
+public interface ScoredItemId {
+    Long getId();
+
+    Double getScore();
+}
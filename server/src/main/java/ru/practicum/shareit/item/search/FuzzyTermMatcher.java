@@ -0,0 +1,171 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds dictionary terms within a bounded edit distance of a token. Candidates come from a
+ * trigram index and are pruned with the q-gram count and length filters, so only terms that
+ * share grams with the token are ever verified with Levenshtein distance. The same index also
+ * finds the terms containing a token anywhere.
+ * Updates are not thread-safe; callers guard the matcher with their own read-write lock.
+ */
+public class FuzzyTermMatcher {
+    private static final int GRAM = 3;
+
+    private final Map<String, Set<String>> termsByGram = new HashMap<>();
+    private final Map<String, Integer> gramCounts = new HashMap<>();
+
+    public void add(String term) {
+        Set<String> grams = grams(term);
+        for (String gram : grams) {
+            termsByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+        }
+        gramCounts.put(term, grams.size());
+    }
+
+    public void remove(String term) {
+        gramCounts.remove(term);
+        for (String gram : grams(term)) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    termsByGram.remove(gram);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        termsByGram.clear();
+        gramCounts.clear();
+    }
+
+    /**
+     * Returns the terms within {@code maxEdits} of {@code token}, mapped to their distance.
+     */
+    public Map<String, Integer> match(String token, int maxEdits) {
+        Map<String, Integer> matches = new HashMap<>();
+        for (String term : candidates(token, maxEdits)) {
+            int distance = distance(token, term, maxEdits);
+            if (distance <= maxEdits) {
+                matches.put(term, distance);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Terms that pass the q-gram count and length filters for {@code token}; {@link #match}
+     * computes the edit distance for these only. Never misses a term within {@code maxEdits}.
+     */
+    public Set<String> candidates(String token, int maxEdits) {
+        Set<String> tokenGrams = grams(token);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : tokenGrams) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms != null) {
+                for (String term : terms) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+        Set<String> candidates = new HashSet<>();
+        for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+            String term = candidate.getKey();
+            if (Math.abs(term.length() - token.length()) > maxEdits) {
+                continue;
+            }
+            int required = Math.max(tokenGrams.size(), gramCounts.get(term)) - GRAM * maxEdits;
+            if (candidate.getValue() >= required) {
+                candidates.add(term);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the terms that contain {@code token} anywhere. A token of at least three characters
+     * only checks the terms holding all of its grams; a shorter one checks the terms of the
+     * grams that contain it, and every term has such a gram.
+     */
+    public Set<String> containing(String token) {
+        Set<String> found = null;
+        if (token.length() >= GRAM) {
+            for (int i = 0; i + GRAM <= token.length(); i++) {
+                Set<String> terms = termsByGram.getOrDefault(token.substring(i, i + GRAM), Set.of());
+                if (found == null) {
+                    found = new HashSet<>(terms);
+                } else {
+                    found.retainAll(terms);
+                }
+                if (found.isEmpty()) {
+                    return found;
+                }
+            }
+        } else {
+            found = new HashSet<>();
+            for (Map.Entry<String, Set<String>> gram : termsByGram.entrySet()) {
+                if (gram.getKey().contains(token)) {
+                    found.addAll(gram.getValue());
+                }
+            }
+        }
+        found.removeIf(term -> !term.contains(token));
+        return found;
+    }
+
+    /**
+     * Edits tolerated for a token of the given length: none for very short tokens, where a
+     * single edit already changes the meaning, one for short ones.
+     */
+    public static int maxEditsFor(int length, int maxEdits) {
+        if (length <= 2) {
+            return 0;
+        }
+        if (length <= 5) {
+            return Math.min(1, maxEdits);
+        }
+        return maxEdits;
+    }
+
+    /**
+     * Levenshtein distance that gives up once every cell of a row exceeds {@code limit};
+     * returns {@code limit + 1} in that case.
+     */
+    static int distance(String a, String b, int limit) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static Set<String> grams(String term) {
+        String padded = "$" + term + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
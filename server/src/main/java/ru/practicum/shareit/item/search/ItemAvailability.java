@@ -0,0 +1,169 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap of available item ids. The id space is split into chunks of
+ * {@code 2^CHUNK_BITS} ids, each a {@link BitSet} created on first use, so any {@code BIGINT}
+ * id fits and memory follows the ranges that actually hold available items rather than the
+ * largest id.
+ * <p>
+ * A rebuild loads the ids without holding the lock. Updates committed meanwhile are applied
+ * to the live bitmap and also recorded, and are replayed onto the loaded one before it
+ * replaces the live one, so none of them is lost.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ItemAvailability {
+    private static final int CHUNK_BITS = 16;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private final ItemRepository itemRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, BitSet> chunks = new HashMap<>();
+    private Map<Long, Boolean> updatedDuringRebuild;
+    private volatile boolean ready;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        log.info("Rebuilding item availability bitmap");
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            updatedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Long, BitSet> loaded = new HashMap<>();
+        try {
+            for (Long id : itemRepository.findAvailableIds()) {
+                set(loaded, id, true);
+            }
+        } catch (RuntimeException e) {
+            stopRecording();
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            updatedDuringRebuild.forEach((id, value) -> set(loaded, id, value));
+            updatedDuringRebuild = null;
+            chunks.clear();
+            chunks.putAll(loaded);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Item availability bitmap ready: {} available items", count());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Records the current availability of the item once the surrounding transaction commits.
+     */
+    public void update(Item item) {
+        long id = item.getId();
+        boolean value = Boolean.TRUE.equals(item.getAvailable());
+        AfterCommit.run(() -> set(id, value));
+    }
+
+    public boolean isAvailable(long id) {
+        lock.readLock().lock();
+        try {
+            return get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the ids of unavailable items from {@code ids}.
+     */
+    public void retainAvailable(Collection<Long> ids) {
+        lock.readLock().lock();
+        try {
+            ids.removeIf(id -> !get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count() {
+        lock.readLock().lock();
+        try {
+            return chunks.values()
+                    .stream()
+                    .mapToInt(BitSet::cardinality)
+                    .sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void set(long id, boolean value) {
+        lock.writeLock().lock();
+        try {
+            set(chunks, id, value);
+            if (updatedDuringRebuild != null) {
+                updatedDuringRebuild.put(id, value);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void stopRecording() {
+        lock.writeLock().lock();
+        try {
+            updatedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean get(long id) {
+        if (id < 0) {
+            return false;
+        }
+        BitSet chunk = chunks.get(id >>> CHUNK_BITS);
+        return chunk != null && chunk.get((int) (id & CHUNK_MASK));
+    }
+
+    private static void set(Map<Long, BitSet> chunks, long id, boolean value) {
+        if (id < 0) {
+            return;
+        }
+        long key = id >>> CHUNK_BITS;
+        int bit = (int) (id & CHUNK_MASK);
+        if (value) {
+            chunks.computeIfAbsent(key, k -> new BitSet()).set(bit);
+            return;
+        }
+        BitSet chunk = chunks.get(key);
+        if (chunk != null) {
+            chunk.clear(bit);
+            if (chunk.isEmpty()) {
+                chunks.remove(key);
+            }
+        }
+    }
+}
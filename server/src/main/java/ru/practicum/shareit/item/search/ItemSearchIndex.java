@@ -0,0 +1,442 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over item name and description. Terms are lowercased tokens,
+ * each mapped to the ids of the items containing it. A query matches an item when every
+ * query token occurs anywhere inside one of the item's terms, as the database search's
+ * {@code ILIKE '%text%'} does, or, for fuzzy queries, also when a term is within a small edit
+ * distance of the token. Matches are ranked with BM25F, where name and description are
+ * separate fields and name occurrences weigh more. Unavailable items stay indexed and are
+ * filtered out with the {@link ItemAvailability} bitmap.
+ * <p>
+ * For a one-word query both searches find the same items. The database matches a longer
+ * text as one phrase, while the index matches each word on its own, so for several words
+ * the index also finds items where they are apart or in another order.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final long TERM_BYTES = 64;
+    private static final long POSTING_BYTES = 48;
+    private static final long DOCUMENT_BYTES = 96;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchProperties properties;
+    private final ItemAvailability availability;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final FuzzyTermMatcher fuzzyMatcher = new FuzzyTermMatcher();
+    private long estimatedBytes;
+    private long totalNameLength;
+    private long totalDescriptionLength;
+    private volatile boolean ready;
+    private volatile boolean exhausted;
+    private volatile ConsistencyReport lastVerification;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!properties.getIndex().isEnabled()) {
+            return;
+        }
+        log.info("Rebuilding item search index");
+        ready = false;
+        exhausted = false;
+        clear();
+        int batchSize = properties.getIndex().getRebuildBatchSize();
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(batchSize));
+            for (Item item : batch) {
+                if (!put(item.getId(), item.getName(), item.getDescription())) {
+                    return;
+                }
+                lastId = item.getId();
+            }
+        } while (batch.size() == batchSize);
+        ready = true;
+        log.info("Item search index ready: {} items, {} terms", documentCount(), termCount());
+    }
+
+    public boolean isReady() {
+        return ready && availability.isReady();
+    }
+
+    /**
+     * Indexes the current state of the item once the surrounding transaction commits, so a
+     * rolled back create or update never becomes searchable.
+     */
+    public void index(Item item) {
+        if (!properties.getIndex().isEnabled() || exhausted) {
+            return;
+        }
+        Long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        AfterCommit.run(() -> put(id, name, description));
+    }
+
+    /**
+     * Returns the {@code limit} best ranked available items matching every token of
+     * {@code text}, best first; equal scores are ordered by item id. Fuzzy matches count
+     * less the more edits they need.
+     */
+    public List<SearchHit> search(String text, int limit, boolean fuzzy) {
+        return search(text, limit, fuzzy, Collections.emptySet(), SearchCursor.FIRST);
+    }
+
+    /**
+     * Same as {@link #search(String, int, boolean)}, skipping the {@code excluded} item ids and
+     * every hit up to and including {@code after} before the top {@code limit} hits are selected,
+     * so a page costs the same however deep it is.
+     */
+    public List<SearchHit> search(String text, int limit, boolean fuzzy, Set<Long> excluded, SearchHit after) {
+        Set<String> tokens = SearchTokenizer.tokenize(text);
+        if (tokens.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Map<String, Double> expansions = new HashMap<>();
+            Set<Long> candidates = match(tokens, fuzzy, expansions);
+            if (candidates.isEmpty()) {
+                return Collections.emptyList();
+            }
+            PriorityQueue<SearchHit> top = new PriorityQueue<>(limit, SearchHit.BEST_FIRST.reversed());
+            for (Long id : candidates) {
+                IndexedItem document = documents.get(id);
+                if (excluded.contains(id)) {
+                    continue;
+                }
+                SearchHit hit = new SearchHit(id, score(document, expansions));
+                if (SearchHit.BEST_FIRST.compare(hit, after) <= 0) {
+                    continue;
+                }
+                top.offer(hit);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<SearchHit> hits = new ArrayList<>(top);
+            hits.sort(SearchHit.BEST_FIRST);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the available items {@link #search(String, int, boolean)} would rank for
+     * {@code text}, unordered and unlimited.
+     */
+    public Set<Long> matchingIds(String text, boolean fuzzy) {
+        Set<String> tokens = SearchTokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return Collections.emptySet();
+        }
+        lock.readLock().lock();
+        try {
+            return match(tokens, fuzzy, new HashMap<>());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Maps each available item containing at least one of {@code terms} exactly to the terms it
+     * contains. Returns an empty map while the index is not ready.
+     */
+    public Map<Long, Set<String>> findTerms(Collection<String> terms) {
+        Map<Long, Set<String>> found = new HashMap<>();
+        if (!isReady()) {
+            return found;
+        }
+        lock.readLock().lock();
+        try {
+            for (String term : terms) {
+                Set<Long> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                for (Long id : posting) {
+                    found.computeIfAbsent(id, k -> new HashSet<>()).add(term);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        availability.retainAvailable(found.keySet());
+        return found;
+    }
+
+    /**
+     * Runs {@link #verify()} in the background and keeps the report for
+     * {@link #lastVerification()}, so health probes never scan the {@code items} table.
+     */
+    @Scheduled(initialDelayString = "${shareit.search.index.verify-interval:PT10M}",
+            fixedDelayString = "${shareit.search.index.verify-interval:PT10M}")
+    public void verifyInBackground() {
+        if (!isReady()) {
+            return;
+        }
+        ConsistencyReport report = verify();
+        if (!report.isConsistent()) {
+            log.warn("Item search index differs from the items table: {}", report);
+        }
+        lastVerification = report;
+    }
+
+    public Optional<ConsistencyReport> lastVerification() {
+        return Optional.ofNullable(lastVerification);
+    }
+
+    /**
+     * Compares the index with the {@code items} table item by item. Reads the whole table, and
+     * writes committed while it runs may show up as mismatches until they are indexed.
+     */
+    public ConsistencyReport verify() {
+        int batchSize = properties.getIndex().getRebuildBatchSize();
+        long stored = 0;
+        long mismatched = 0;
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(batchSize));
+            lock.readLock().lock();
+            try {
+                for (Item item : batch) {
+                    IndexedItem indexed = documents.get(item.getId());
+                    IndexedItem expected = IndexedItem.of(item.getName(), item.getDescription());
+                    boolean available = Boolean.TRUE.equals(item.getAvailable());
+                    if (!expected.equals(indexed) || availability.isAvailable(item.getId()) != available) {
+                        mismatched++;
+                    }
+                    lastId = item.getId();
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            stored += batch.size();
+        } while (batch.size() == batchSize);
+        return new ConsistencyReport(documentCount(), stored, mismatched);
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Available items matching every token, collecting the index terms each token expanded to
+     * into {@code expansions}. Callers hold the read lock.
+     */
+    private Set<Long> match(Set<String> tokens, boolean fuzzy, Map<String, Double> expansions) {
+        Set<Long> candidates = null;
+        for (String token : tokens) {
+            Map<String, Double> tokenExpansions = expand(token, fuzzy);
+            Set<Long> matches = new HashSet<>();
+            for (Map.Entry<String, Double> expansion : tokenExpansions.entrySet()) {
+                expansions.merge(expansion.getKey(), expansion.getValue(), Math::max);
+                matches.addAll(postings.get(expansion.getKey()));
+            }
+            if (candidates == null) {
+                candidates = matches;
+            } else {
+                candidates.retainAll(matches);
+            }
+            if (candidates.isEmpty()) {
+                return candidates;
+            }
+        }
+        availability.retainAvailable(candidates);
+        return candidates;
+    }
+
+    /**
+     * Maps the index terms a token stands for to the weight their matches get.
+     */
+    private Map<String, Double> expand(String token, boolean fuzzy) {
+        Map<String, Double> expansions = new HashMap<>();
+        for (String term : fuzzyMatcher.containing(token)) {
+            expansions.put(term, 1.0);
+        }
+        if (fuzzy) {
+            int maxEdits = FuzzyTermMatcher.maxEditsFor(token.length(), properties.getFuzzyMaxEdits());
+            if (maxEdits > 0) {
+                fuzzyMatcher.match(token, maxEdits)
+                        .forEach((term, distance) -> expansions.merge(term, 1.0 / (1 + distance), Math::max));
+            }
+        }
+        return expansions;
+    }
+
+    private double score(IndexedItem document, Map<String, Double> expansions) {
+        int documentsTotal = documents.size();
+        double averageName = Math.max(1.0, (double) totalNameLength / documentsTotal);
+        double averageDescription = Math.max(1.0, (double) totalDescriptionLength / documentsTotal);
+        double nameNorm = 1 - B + B * document.nameLength() / averageName;
+        double descriptionNorm = 1 - B + B * document.descriptionLength() / averageDescription;
+        double score = 0;
+        for (Map.Entry<String, Double> expansion : expansions.entrySet()) {
+            TermFrequency frequency = document.terms().get(expansion.getKey());
+            if (frequency == null) {
+                continue;
+            }
+            double weighted = NAME_WEIGHT * frequency.name() / nameNorm
+                    + DESCRIPTION_WEIGHT * frequency.description() / descriptionNorm;
+            int df = postings.get(expansion.getKey()).size();
+            double idf = Math.log(1 + (documentsTotal - df + 0.5) / (df + 0.5));
+            score += expansion.getValue() * idf * weighted / (K1 + weighted);
+        }
+        return score;
+    }
+
+    private boolean put(Long id, String name, String description) {
+        lock.writeLock().lock();
+        try {
+            IndexedItem previous = documents.remove(id);
+            if (previous != null) {
+                remove(id, previous);
+            }
+            IndexedItem document = IndexedItem.of(name, description);
+            documents.put(id, document);
+            estimatedBytes += DOCUMENT_BYTES;
+            totalNameLength += document.nameLength();
+            totalDescriptionLength += document.descriptionLength();
+            for (String term : document.terms().keySet()) {
+                Set<Long> posting = postings.get(term);
+                if (posting == null) {
+                    posting = new HashSet<>();
+                    postings.put(term, posting);
+                    fuzzyMatcher.add(term);
+                    estimatedBytes += TERM_BYTES + 2L * term.length() + POSTING_BYTES * term.length();
+                }
+                posting.add(id);
+                estimatedBytes += POSTING_BYTES;
+            }
+            if (estimatedBytes > properties.getIndex().getMemoryBudget().toBytes()) {
+                log.warn("Item search index exceeded memory budget of {}, falling back to database search",
+                        properties.getIndex().getMemoryBudget());
+                ready = false;
+                exhausted = true;
+                clearUnderLock();
+                return false;
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long id, IndexedItem document) {
+        estimatedBytes -= DOCUMENT_BYTES;
+        totalNameLength -= document.nameLength();
+        totalDescriptionLength -= document.descriptionLength();
+        for (String term : document.terms().keySet()) {
+            Set<Long> posting = postings.get(term);
+            if (posting != null && posting.remove(id)) {
+                estimatedBytes -= POSTING_BYTES;
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                    fuzzyMatcher.remove(term);
+                    estimatedBytes -= TERM_BYTES + 2L * term.length() + POSTING_BYTES * term.length();
+                }
+            }
+        }
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            clearUnderLock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clearUnderLock() {
+        postings.clear();
+        documents.clear();
+        fuzzyMatcher.clear();
+        estimatedBytes = 0;
+        totalNameLength = 0;
+        totalDescriptionLength = 0;
+    }
+
+    private record TermFrequency(int name, int description) {
+    }
+
+    private record IndexedItem(Map<String, TermFrequency> terms, int nameLength, int descriptionLength) {
+
+        static IndexedItem of(String name, String description) {
+            List<String> nameTokens = SearchTokenizer.tokens(name);
+            List<String> descriptionTokens = SearchTokenizer.tokens(description);
+            Map<String, TermFrequency> terms = new HashMap<>();
+            for (String token : nameTokens) {
+                terms.merge(token, new TermFrequency(1, 0),
+                        (a, b) -> new TermFrequency(a.name() + 1, a.description()));
+            }
+            for (String token : descriptionTokens) {
+                terms.merge(token, new TermFrequency(0, 1),
+                        (a, b) -> new TermFrequency(a.name(), a.description() + 1));
+            }
+            return new IndexedItem(terms, nameTokens.size(), descriptionTokens.size());
+        }
+    }
+
+    public record SearchHit(long itemId, double score) {
+        static final Comparator<SearchHit> BEST_FIRST = Comparator.comparingDouble(SearchHit::score)
+                .reversed()
+                .thenComparingLong(SearchHit::itemId);
+    }
+
+    public record ConsistencyReport(long indexed, long stored, long mismatched) {
+
+        public boolean isConsistent() {
+            return indexed == stored && mismatched == 0;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndexHealthIndicator implements HealthIndicator {
+    private final ItemSearchIndex searchIndex;
+    private final ItemSearchProperties properties;
+
+    @Override
+    public Health health() {
+        if (!properties.getIndex().isEnabled()) {
+            return Health.unknown().withDetail("enabled", false).build();
+        }
+        if (!searchIndex.isReady()) {
+            return Health.outOfService().withDetail("ready", false).build();
+        }
+        Health.Builder builder = Health.up().withDetail("indexed", searchIndex.documentCount());
+        searchIndex.lastVerification().ifPresent(report -> builder
+                .withDetail("verifiedStored", report.stored())
+                .withDetail("verifiedMismatched", report.mismatched()));
+        return builder.build();
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+
+import java.util.List;
+
+/**
+ * One page of item search results; {@code nextCursor} is {@code null} on the last page.
+ */
+public record ItemSearchPage(List<ItemResponseDto> items, String nextCursor) {
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.search")
+public class ItemSearchProperties {
+
+    /**
+     * Strategy used by {@code /items/search}. {@link Mode#FULL_TEXT} relies on the
+     * PostgreSQL-only objects from the {@code db/migration/postgresql} migrations, so H2 keeps {@link Mode#JPQL}.
+     */
+    private Mode mode = Mode.JPQL;
+
+    /**
+     * Number of ranked results returned when the client does not pass {@code limit}.
+     */
+    private int defaultLimit = 100;
+
+    /**
+     * Upper bound on edits for fuzzy matching; shorter tokens tolerate fewer, see
+     * {@link FuzzyTermMatcher#maxEditsFor(int, int)}.
+     */
+    private int fuzzyMaxEdits = 2;
+
+    private Index index = new Index();
+
+    public enum Mode {
+        JPQL,
+        FULL_TEXT
+    }
+
+    @Data
+    public static class Index {
+
+        /**
+         * Answer searches from the in-process inverted index; {@link #mode} is only used
+         * while the index is not ready.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Estimated heap the index may occupy. Once exceeded the index is dropped and
+         * searches go back to the database.
+         */
+        private DataSize memoryBudget = DataSize.ofMegabytes(64);
+
+        private int rebuildBatchSize = 500;
+
+        /**
+         * Delay between background comparisons of the index with the {@code items} table. The
+         * last report is shown by the health indicator.
+         */
+        private Duration verifyInterval = Duration.ofMinutes(10);
+    }
+}
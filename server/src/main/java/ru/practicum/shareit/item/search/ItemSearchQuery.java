@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Parameters of {@code /items/search}. When {@code start} and {@code end} are set, only items
+ * without an APPROVED booking (and a WAITING one, if {@code includeWaiting}) overlapping
+ * {@code [start, end)} are returned. {@code limit} is the page size and {@code after} the
+ * {@link SearchCursor} returned with the previous page.
+ */
+public record ItemSearchQuery(String text,
+                              Integer limit,
+                              boolean fuzzy,
+                              LocalDateTime start,
+                              LocalDateTime end,
+                              boolean includeWaiting,
+                              String after) {
+
+    public static ItemSearchQuery of(String text) {
+        return new ItemSearchQuery(text, null, false, null, null, false, null);
+    }
+
+    public boolean hasPeriod() {
+        return start != null || end != null;
+    }
+
+    public List<BookingStatus> blockingStatuses() {
+        return includeWaiting
+                ? List.of(BookingStatus.APPROVED, BookingStatus.WAITING)
+                : List.of(BookingStatus.APPROVED);
+    }
+}
@@ -0,0 +1,183 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Trie over the name terms of available items. Every node caches the highest term count in
+ * its subtree, so the top completions of a prefix are found best-first without visiting the
+ * whole subtree.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ItemSuggester {
+    private final ItemRepository itemRepository;
+    private final ItemSearchProperties properties;
+
+    private final Node root = new Node(null, '\0');
+    private final Map<Long, Set<String>> termsByItem = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int batchSize = properties.getIndex().getRebuildBatchSize();
+        synchronized (this) {
+            clear();
+            long lastId = 0;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(batchSize));
+                for (Item item : batch) {
+                    put(item.getId(), item.getName(), Boolean.TRUE.equals(item.getAvailable()));
+                    lastId = item.getId();
+                }
+            } while (batch.size() == batchSize);
+        }
+        log.info("Item suggester ready: {} items", termsByItem.size());
+    }
+
+    /**
+     * Applies the item's name and availability once the surrounding transaction commits.
+     */
+    public void index(Item item) {
+        Long id = item.getId();
+        String name = item.getName();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                put(id, name, available);
+            }
+        });
+    }
+
+    /**
+     * Returns up to {@code limit} terms starting with {@code prefix}, most frequent first.
+     */
+    public synchronized List<String> suggest(String prefix, int limit) {
+        String normalized = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        Node node = root;
+        for (int i = 0; i < normalized.length() && node != null; i++) {
+            node = node.children.get(normalized.charAt(i));
+        }
+        if (node == null || node.best == 0) {
+            return Collections.emptyList();
+        }
+        List<String> completions = new ArrayList<>(limit);
+        PriorityQueue<Node> queue = new PriorityQueue<>(Comparator.comparingInt((Node n) -> n.best).reversed());
+        queue.add(node);
+        while (!queue.isEmpty() && completions.size() < limit) {
+            Node current = queue.poll();
+            if (current.terminal) {
+                completions.add(current.term());
+                continue;
+            }
+            if (current.count > 0) {
+                queue.add(current.asTerminal());
+            }
+            for (Node child : current.children.values()) {
+                if (child.best > 0) {
+                    queue.add(child);
+                }
+            }
+        }
+        return completions;
+    }
+
+    private void put(Long id, String name, boolean available) {
+        Set<String> previous = termsByItem.remove(id);
+        if (previous != null) {
+            previous.forEach(term -> adjust(term, -1));
+        }
+        if (available) {
+            Set<String> terms = SearchTokenizer.tokenize(name);
+            terms.forEach(term -> adjust(term, 1));
+            termsByItem.put(id, terms);
+        }
+    }
+
+    private void adjust(String term, int delta) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            Node parent = node;
+            node = node.children.computeIfAbsent(c, ch -> new Node(parent, ch));
+        }
+        node.count += delta;
+        for (Node current = node; current != null; current = current.parent) {
+            current.recomputeBest();
+            if (current.parent != null && current.best == 0 && current.children.isEmpty()) {
+                current.parent.children.remove(current.character);
+            }
+        }
+    }
+
+    private void clear() {
+        root.children.clear();
+        root.count = 0;
+        root.best = 0;
+        termsByItem.clear();
+    }
+
+    private static class Node {
+        private final Node parent;
+        private final char character;
+        private final Map<Character, Node> children = new HashMap<>();
+        private final boolean terminal;
+        private int count;
+        private int best;
+
+        Node(Node parent, char character) {
+            this(parent, character, false);
+        }
+
+        private Node(Node parent, char character, boolean terminal) {
+            this.parent = parent;
+            this.character = character;
+            this.terminal = terminal;
+        }
+
+        /**
+         * A queue entry standing for the term ending at this node, ranked by its own count only.
+         */
+        Node asTerminal() {
+            Node terminalNode = new Node(this, character, true);
+            terminalNode.best = count;
+            return terminalNode;
+        }
+
+        void recomputeBest() {
+            int max = count;
+            for (Node child : children.values()) {
+                max = Math.max(max, child.best);
+            }
+            best = max;
+        }
+
+        String term() {
+            StringBuilder builder = new StringBuilder();
+            for (Node node = terminal ? parent : this; node.parent != null; node = node.parent) {
+                builder.append(node.character);
+            }
+            return builder.reverse().toString();
+        }
+    }
+}
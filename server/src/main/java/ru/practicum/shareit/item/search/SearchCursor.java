@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor of item search: the score and id of the last hit of a page.
+ * The next page starts right after that hit in {@link ItemSearchIndex.SearchHit#BEST_FIRST} order.
+ */
+public final class SearchCursor {
+    private static final char SEPARATOR = ':';
+
+    /**
+     * Cursor of the first page: sorts before every real hit.
+     */
+    public static final ItemSearchIndex.SearchHit FIRST = new ItemSearchIndex.SearchHit(0, Double.MAX_VALUE);
+
+    private SearchCursor() {
+    }
+
+    public static String encode(ItemSearchIndex.SearchHit last) {
+        String raw = Double.toString(last.score()) + SEPARATOR + last.itemId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ItemSearchIndex.SearchHit decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new ItemSearchIndex.SearchHit(Long.parseLong(raw.substring(separator + 1)),
+                    Double.parseDouble(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid search cursor: " + cursor);
+        }
+    }
+}
@@ -2,7 +2,10 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.search.ItemSearchPage;
+import ru.practicum.shareit.item.search.ItemSearchQuery;
 
 import java.util.List;
 
@@ -13,9 +16,13 @@ public interface ItemService {
 
     ItemResponseDto update(Long userId, Long itemId, ItemUpdateDto itemUpdateDto);
 
-    ItemResponseDto getItemById(Long id);
+    ItemResponseDto getItemById(Long userId, Long id);
 
     List<ItemResponseDto> getItemsByOwnerId(Long id);
 
-    List<ItemResponseDto> searchItems(String text);
+    List<ItemSummaryDto> getItemSummariesByOwnerId(Long id);
+
+    ItemSearchPage searchItems(ItemSearchQuery query);
+
+    List<String> suggest(String prefix, int limit);
 }
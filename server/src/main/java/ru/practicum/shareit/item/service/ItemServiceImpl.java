@@ -2,32 +2,49 @@ package ru.practicum.shareit.item.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.dto.BookingResponseDto;
-import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.AdjacentBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
-import ru.practicum.shareit.item.comment.dto.mapper.CommentMapper;
-import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.comment.repository.CommentRow;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
 import ru.practicum.shareit.item.dto.mapper.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemRow;
+import ru.practicum.shareit.item.repository.ScoredItemId;
+import ru.practicum.shareit.item.search.ItemAvailability;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchPage;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
+import ru.practicum.shareit.item.search.ItemSearchQuery;
+import ru.practicum.shareit.item.search.ItemSuggester;
+import ru.practicum.shareit.item.search.SearchCursor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.subscription.service.SubscriptionService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -36,12 +53,19 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final int BOOKED_LOOKUP_CHUNK = 1000;
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchProperties searchProperties;
+    private final ItemAvailability availability;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSuggester suggester;
+    private final SubscriptionService subscriptionService;
+    private final ItemRequestService itemRequestService;
 
     @Override
     @Transactional
@@ -57,6 +81,11 @@ public class ItemServiceImpl implements ItemService {
         }
         Item item = ItemMapper.toItem(itemCreateDto, owner, itemRequest);
         Item createdItem = itemRepository.save(item);
+        availability.update(createdItem);
+        searchIndex.index(createdItem);
+        suggester.index(createdItem);
+        subscriptionService.notifyMatches(createdItem);
+        itemRequestService.suggestRequestsFor(createdItem);
         return ItemMapper.toResponseDto(createdItem);
     }
 
@@ -72,21 +101,27 @@ public class ItemServiceImpl implements ItemService {
         }
         Item updatedItem = ItemMapper.toItem(existingItem, itemUpdateDto);
         itemRepository.save(updatedItem);
+        availability.update(updatedItem);
+        searchIndex.index(updatedItem);
+        suggester.index(updatedItem);
         return ItemMapper.toResponseDto(updatedItem);
     }
 
     @Override
-    public ItemResponseDto getItemById(Long id) {
-        log.info("Getting item by id: {}", id);
+    public ItemResponseDto getItemById(Long userId, Long id) {
+        log.info("Getting item by id: {} for user id: {}", id, userId);
         Item item = getItemOrThrow(id);
-        List<Comment> comments = commentRepository.findAllByItemId(id);
+        List<CommentRow> comments = commentRepository.findRowsByItemId(id);
         log.debug("Found {} comments for item id {}", comments.size(), id);
         List<CommentResponseDto> commentDtos = comments
                 .stream()
-                .map(CommentMapper::toCommentDto)
+                .map(CommentRow::toResponseDto)
                 .collect(Collectors.toList());
-        ItemResponseDto dto = ItemMapper.toResponseDto(item);
-        dto.setComments(commentDtos);
+        ItemResponseDto dto = ItemMapper.toResponseDto(item, commentDtos);
+        if (item.getOwner().getId().equals(userId)) {
+            fillAdjacentBookings(Map.of(dto.getId(), dto),
+                    ItemResponseDto::setLastBooking, ItemResponseDto::setNextBooking);
+        }
         return dto;
     }
 
@@ -95,50 +130,175 @@ public class ItemServiceImpl implements ItemService {
         log.info("Getting items for owner id: {}", id);
         getUserOrThrow(id);
         log.debug("User with id: {} verified", id);
-        List<Item> items = itemRepository.findByOwnerId(id);
+        List<ItemRow> items = itemRepository.findRowsByOwnerId(id);
         if (items.isEmpty()) {
             return Collections.emptyList();
         }
 
         List<Long> itemIds = items.stream()
-                .map(Item::getId)
+                .map(ItemRow::id)
                 .collect(Collectors.toList());
-        List<Booking> bookings = bookingRepository.findApprovedByItemIdsOrderByStartAsc(itemIds);
-
-        Map<Long, List<BookingResponseDto>> bookingsByItemId = bookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(),
-                        Collectors.mapping(BookingMapper::toBookingDto, Collectors.toList())
-                ));
-
-        List<Comment> comments = commentRepository.findByItemIdIn(itemIds);
+        List<CommentRow> comments = commentRepository.findRowsByItemIdIn(itemIds);
 
         Map<Long, List<CommentResponseDto>> commentsByItemId = comments.stream()
-                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
-                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())
+                .collect(Collectors.groupingBy(CommentRow::itemId,
+                        Collectors.mapping(CommentRow::toResponseDto, Collectors.toList())
                 ));
-        return items
+        List<ItemResponseDto> dtos = items
                 .stream()
-                .map(item -> {
-                    List<BookingResponseDto> bookingsDto = bookingsByItemId
-                            .getOrDefault(item.getId(), Collections.emptyList());
-                    List<CommentResponseDto> commentsDto = commentsByItemId
-                            .getOrDefault(item.getId(), Collections.emptyList());
-                    return ItemMapper.toResponseDto(item, bookingsDto, commentsDto);
-                })
+                .map(item -> item.toResponseDto(
+                        commentsByItemId.getOrDefault(item.id(), Collections.emptyList())))
                 .collect(Collectors.toList());
+        fillAdjacentBookings(byId(dtos, ItemResponseDto::getId),
+                ItemResponseDto::setLastBooking, ItemResponseDto::setNextBooking);
+        return dtos;
     }
 
     @Override
-    public List<ItemResponseDto> searchItems(String text) {
-        log.info("Getting items with text: {}", text);
-        String lowerCaseText = text.toLowerCase();
-        List<Item> items = itemRepository.searchItems(lowerCaseText);
-        return items
+    public List<ItemSummaryDto> getItemSummariesByOwnerId(Long id) {
+        log.info("Getting item summaries for owner id: {}", id);
+        getUserOrThrow(id);
+        List<ItemSummaryDto> summaries = itemRepository.findSummariesByOwnerId(id);
+        if (summaries.isEmpty()) {
+            return Collections.emptyList();
+        }
+        fillAdjacentBookings(byId(summaries, ItemSummaryDto::getId),
+                ItemSummaryDto::setLastBooking, ItemSummaryDto::setNextBooking);
+        return summaries;
+    }
+
+    @Override
+    public ItemSearchPage searchItems(ItemSearchQuery query) {
+        log.info("Getting items with query: {}", query);
+        validatePeriod(query);
+        int size = query.limit() != null ? query.limit() : searchProperties.getDefaultLimit();
+        ItemSearchIndex.SearchHit after = SearchCursor.decode(query.after());
+        List<ItemSearchIndex.SearchHit> hits = searchIndex.isReady()
+                ? searchIndexed(query, after, size + 1)
+                : searchStored(query, after, size + 1);
+        String nextCursor = null;
+        if (hits.size() > size) {
+            hits = hits.subList(0, size);
+            nextCursor = SearchCursor.encode(hits.getLast());
+        }
+        return new ItemSearchPage(toResponseDtos(hits), nextCursor);
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        log.info("Getting suggestions for prefix: {}, limit: {}", prefix, limit);
+        return suggester.suggest(prefix, limit);
+    }
+
+    private List<ItemSearchIndex.SearchHit> searchIndexed(ItemSearchQuery query,
+                                                          ItemSearchIndex.SearchHit after,
+                                                          int limit) {
+        Set<Long> booked = query.hasPeriod() ? findBookedMatches(query) : Collections.emptySet();
+        return searchIndex.search(query.text(), limit, query.fuzzy(), booked, after);
+    }
+
+    /**
+     * Ids of the items matching the query text that are booked within its period, looked up in
+     * chunks of {@link #BOOKED_LOOKUP_CHUNK} so a broad query never binds an unbounded id list.
+     */
+    private Set<Long> findBookedMatches(ItemSearchQuery query) {
+        List<Long> candidates = List.copyOf(searchIndex.matchingIds(query.text(), query.fuzzy()));
+        Set<Long> booked = new HashSet<>();
+        for (int from = 0; from < candidates.size(); from += BOOKED_LOOKUP_CHUNK) {
+            List<Long> chunk = candidates.subList(from, Math.min(from + BOOKED_LOOKUP_CHUNK, candidates.size()));
+            booked.addAll(bookingRepository.findItemIdsBookedBetween(chunk, query.start(), query.end(),
+                    query.blockingStatuses()));
+        }
+        return booked;
+    }
+
+    private List<ItemSearchIndex.SearchHit> searchStored(ItemSearchQuery query,
+                                                         ItemSearchIndex.SearchHit after,
+                                                         int limit) {
+        String text = query.text().toLowerCase();
+        double score = after.score();
+        long id = after.itemId();
+        List<ScoredItemId> rows;
+        if (searchProperties.getMode() == ItemSearchProperties.Mode.FULL_TEXT) {
+            if (!query.hasPeriod()) {
+                rows = query.fuzzy()
+                        ? itemRepository.searchItemsFuzzy(text, score, id, limit)
+                        : itemRepository.searchItemsFullText(text, score, id, limit);
+            } else {
+                List<String> statuses = query.blockingStatuses()
+                        .stream()
+                        .map(Enum::name)
+                        .collect(Collectors.toList());
+                rows = query.fuzzy()
+                        ? itemRepository.searchItemsFuzzyFreeBetween(text, query.start(), query.end(), statuses,
+                                score, id, limit)
+                        : itemRepository.searchItemsFullTextFreeBetween(text, query.start(), query.end(), statuses,
+                                score, id, limit);
+            }
+        } else if (!query.hasPeriod()) {
+            rows = itemRepository.searchItems(text, score, id, Limit.of(limit));
+        } else {
+            rows = itemRepository.searchItemsFreeBetween(text, query.start(), query.end(),
+                    query.blockingStatuses(), score, id, Limit.of(limit));
+        }
+        return rows
+                .stream()
+                .map(row -> new ItemSearchIndex.SearchHit(row.getId(), row.getScore()))
+                .collect(Collectors.toList());
+    }
+
+    private List<ItemResponseDto> toResponseDtos(List<ItemSearchIndex.SearchHit> hits) {
+        if (hits.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = hits
+                .stream()
+                .map(ItemSearchIndex.SearchHit::itemId)
+                .collect(Collectors.toList());
+        Map<Long, Item> itemsById = itemRepository.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids
                 .stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
                 .map(ItemMapper::toResponseDto)
                 .collect(Collectors.toList());
     }
 
+    private <T> void fillAdjacentBookings(Map<Long, T> dtosById,
+                                          BiConsumer<T, Long> setLast,
+                                          BiConsumer<T, Long> setNext) {
+        List<AdjacentBooking> adjacent = bookingRepository.findAdjacentApproved(dtosById.keySet(),
+                LocalDateTime.now());
+        log.debug("Found {} last/next bookings for {} items", adjacent.size(), dtosById.size());
+        for (AdjacentBooking booking : adjacent) {
+            T dto = dtosById.get(booking.getItemId());
+            if (booking.getLast()) {
+                setLast.accept(dto, booking.getBookingId());
+            } else {
+                setNext.accept(dto, booking.getBookingId());
+            }
+        }
+    }
+
+    private static <T> Map<Long, T> byId(List<T> dtos, Function<T, Long> id) {
+        return dtos.stream()
+                .collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    private void validatePeriod(ItemSearchQuery query) {
+        if (!query.hasPeriod()) {
+            return;
+        }
+        if (query.start() == null || query.end() == null) {
+            throw new BadRequestException("Both start and end must be set to search by period");
+        }
+        if (!query.end().isAfter(query.start())) {
+            throw new BadRequestException("End of the period must be after its start");
+        }
+    }
+
     private Item getItemOrThrow(Long id) {
         return itemRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Item not found with id " + id));
@@ -10,6 +10,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.dto.ItemRequestSuggestionDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -52,4 +53,14 @@ public class ItemRequestController {
         ItemRequestWithItemsDto request = requestService.getRequestById(requestId);
         return new ResponseEntity<>(request, HttpStatus.OK);
     }
+
+    @GetMapping("/{requestId}/suggestions")
+    public ResponseEntity<List<ItemRequestSuggestionDto>> getSuggestions(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @PathVariable Long requestId,
+            @RequestParam(defaultValue = "10") @Positive Integer size) {
+
+        List<ItemRequestSuggestionDto> suggestions = requestService.getSuggestions(userId, requestId, size);
+        return new ResponseEntity<>(suggestions, HttpStatus.OK);
+    }
 }
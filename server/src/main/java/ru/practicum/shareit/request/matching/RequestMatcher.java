@@ -0,0 +1,147 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.AfterCommit;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.SearchTokenizer;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Scores item requests against items by the terms they share. Request descriptions are kept
+ * in an in-memory term index; item terms come from {@link ItemSearchIndex}. A term weighs
+ * {@code log(1 + N / df)} over the N indexed requests, and a pair scores the share of the
+ * request's total term weight the item covers, so only candidates sharing a term are ever
+ * looked at.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RequestMatcher {
+    static final int MIN_TERM_LENGTH = 3;
+    static final double MIN_SCORE = 0.4;
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex searchIndex;
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Set<String>> termsByRequest = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ItemRequest> requests = itemRequestRepository.findAll();
+        synchronized (this) {
+            postings.clear();
+            termsByRequest.clear();
+            requests.forEach(request -> put(request.getId(), terms(request.getDescription())));
+        }
+        log.info("Request matcher ready: {} requests, {} terms", requests.size(), postings.size());
+    }
+
+    /**
+     * Adds the request to the index once the surrounding transaction commits, so a rolled back
+     * request never receives suggestions.
+     */
+    public void add(ItemRequest request) {
+        Long id = request.getId();
+        Set<String> terms = terms(request.getDescription());
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                put(id, terms);
+            }
+        });
+    }
+
+    /**
+     * Scores the indexed requests sharing a term with the item.
+     */
+    public synchronized Map<Long, Double> requestsFor(Item item) {
+        Set<String> itemTerms = terms(item.getName() + " " + item.getDescription());
+        Map<Long, Double> covered = new HashMap<>();
+        for (String term : itemTerms) {
+            Set<Long> requests = postings.get(term);
+            if (requests == null) {
+                continue;
+            }
+            double weight = weight(term, 0);
+            for (Long id : requests) {
+                covered.merge(id, weight, Double::sum);
+            }
+        }
+        Map<Long, Double> scores = new HashMap<>();
+        covered.forEach((id, weight) -> {
+            double score = weight / totalWeight(termsByRequest.get(id), 0);
+            if (score >= MIN_SCORE) {
+                scores.put(id, score);
+            }
+        });
+        return scores;
+    }
+
+    /**
+     * Scores the available items sharing a term with a request that is not indexed yet. Item
+     * terms come from the search index only; while it is disabled or not ready the request gets
+     * no suggestions for existing items and is matched against items created later.
+     */
+    public synchronized Map<Long, Double> itemsFor(ItemRequest request) {
+        Set<String> requestTerms = terms(request.getDescription());
+        Map<Long, Double> scores = new HashMap<>();
+        if (requestTerms.isEmpty()) {
+            return scores;
+        }
+        if (!searchIndex.isReady()) {
+            log.warn("Item search index is not ready, request {} is not matched against existing items",
+                    request.getId());
+            return scores;
+        }
+        double total = totalWeight(requestTerms, 1);
+        searchIndex.findTerms(requestTerms).forEach((id, terms) -> {
+            double covered = terms.stream().mapToDouble(term -> weight(term, 1)).sum();
+            double score = covered / total;
+            if (score >= MIN_SCORE) {
+                scores.put(id, score);
+            }
+        });
+        return scores;
+    }
+
+    private double totalWeight(Collection<String> terms, int pending) {
+        return terms.stream().mapToDouble(term -> weight(term, pending)).sum();
+    }
+
+    /**
+     * Weight of a term, counting {@code pending} not yet indexed requests that contain it.
+     */
+    private double weight(String term, int pending) {
+        int requests = termsByRequest.size() + pending;
+        int df = postings.getOrDefault(term, Set.of()).size() + pending;
+        return Math.log(1 + (double) requests / df);
+    }
+
+    private void put(Long id, Set<String> terms) {
+        termsByRequest.put(id, terms);
+        for (String term : terms) {
+            postings.computeIfAbsent(term, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static Set<String> terms(String text) {
+        return SearchTokenizer.tokenize(text)
+                .stream()
+                .filter(term -> term.length() >= MIN_TERM_LENGTH)
+                .collect(Collectors.toSet());
+    }
+}
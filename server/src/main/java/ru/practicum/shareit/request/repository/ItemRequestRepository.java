@@ -1,15 +1,24 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findByRequesterIdOrderByCreatedDesc(Long requesterId);
+    @Query("SELECT new ru.practicum.shareit.request.repository.ItemRequestRow(r.id, r.description, r.created) " +
+           "FROM ItemRequest r " +
+           "WHERE r.requester.id = :requesterId " +
+           "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequestRow> findRowsByRequesterId(@Param("requesterId") Long requesterId);
 
-    Page<ItemRequest> findByRequesterIdNot(Long requesterId, Pageable pageable);
+    @Query("SELECT new ru.practicum.shareit.request.repository.ItemRequestRow(r.id, r.description, r.created) " +
+           "FROM ItemRequest r " +
+           "WHERE r.requester.id <> :requesterId " +
+           "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequestRow> findRowsByRequesterIdNot(@Param("requesterId") Long requesterId, Pageable pageable);
 }
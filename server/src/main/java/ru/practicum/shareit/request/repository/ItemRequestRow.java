@@ -0,0 +1,22 @@
+package ru.practicum.shareit.request.repository;
+
+import ru.practicum.shareit.item.dto.ItemRequestItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Item request columns of the request lists, selected without hydrating the request.
+ */
+public record ItemRequestRow(Long id, String description, LocalDateTime created) {
+
+    public ItemRequestWithItemsDto toWithItemsDto(List<ItemRequestItemDto> items) {
+        return ItemRequestWithItemsDto.builder()
+                .id(id)
+                .description(description)
+                .created(created)
+                .items(items)
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.model.ItemRequestSuggestion;
+
+import java.util.List;
+
+public interface ItemRequestSuggestionRepository extends JpaRepository<ItemRequestSuggestion, Long> {
+
+    @Query("SELECT s " +
+           "FROM ItemRequestSuggestion s " +
+           "JOIN FETCH s.item i " +
+           "WHERE s.request.id = :requestId AND i.available = true " +
+           "ORDER BY s.score DESC, s.id")
+    List<ItemRequestSuggestion> findTopByRequestId(@Param("requestId") Long requestId, Limit limit);
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.dto.ItemRequestSuggestionDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
 
 import java.util.List;
@@ -16,4 +18,8 @@ public interface ItemRequestService {
 
     List<ItemRequestWithItemsDto> getAll(Long userId, Integer from, Integer size);
 
+    List<ItemRequestSuggestionDto> getSuggestions(Long userId, Long requestId, Integer size);
+
+    void suggestRequestsFor(Item item);
+
 }
\ No newline at end of file
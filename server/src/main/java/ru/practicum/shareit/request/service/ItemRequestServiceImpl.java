@@ -2,22 +2,32 @@ package ru.practicum.shareit.request.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemRequestItemDto;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.RequestItemRow;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.dto.ItemRequestSuggestionDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
 import ru.practicum.shareit.request.dto.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.RequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestSuggestion;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRow;
+import ru.practicum.shareit.request.repository.ItemRequestSuggestionRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +43,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final ItemRequestMapper itemRequestMapper;
+    private final ItemRequestSuggestionRepository suggestionRepository;
+    private final RequestMatcher requestMatcher;
 
     @Override
     @Transactional
@@ -40,13 +52,24 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         User requester = getUserOrThrow(userId);
         ItemRequest itemRequest = itemRequestMapper.toItemRequest(dto, requester);
         ItemRequest savedRequest = itemRequestRepository.save(itemRequest);
+        Map<Long, Double> scores = requestMatcher.itemsFor(savedRequest);
+        requestMatcher.add(savedRequest);
+        if (!scores.isEmpty()) {
+            List<ItemRequestSuggestion> suggestions = itemRepository.findAllById(scores.keySet())
+                    .stream()
+                    .filter(item -> !item.getOwner().getId().equals(userId))
+                    .map(item -> toSuggestion(savedRequest, item, scores.get(item.getId())))
+                    .collect(Collectors.toList());
+            suggestionRepository.saveAll(suggestions);
+            log.info("Request {} matched {} existing items", savedRequest.getId(), suggestions.size());
+        }
         return itemRequestMapper.toItemRequestResponseDto(savedRequest);
     }
 
     @Override
     public List<ItemRequestWithItemsDto> getRequestsByUserId(Long id) {
         getUserOrThrow(id);
-        List<ItemRequest> requests = itemRequestRepository.findByRequesterIdOrderByCreatedDesc(id);
+        List<ItemRequestRow> requests = itemRequestRepository.findRowsByRequesterId(id);
         return enrichWithItems(requests);
     }
 
@@ -64,29 +87,68 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         getUserOrThrow(userId);
 
         Pageable pageable = PageRequest.of(from / size, size);
-        List<ItemRequest> requests = itemRequestRepository.findByRequesterIdNot(userId, pageable).getContent();
+        List<ItemRequestRow> requests = itemRequestRepository.findRowsByRequesterIdNot(userId, pageable);
         return enrichWithItems(requests);
     }
 
-    private List<ItemRequestWithItemsDto> enrichWithItems(List<ItemRequest> requests) {
+    @Override
+    public List<ItemRequestSuggestionDto> getSuggestions(Long userId, Long requestId, Integer size) {
+        ItemRequest itemRequest = getItemRequestOrThrow(requestId);
+        if (!itemRequest.getRequester().getId().equals(userId)) {
+            throw new ForbiddenException("User " + userId + " is not the author of request " + requestId);
+        }
+        return suggestionRepository.findTopByRequestId(requestId, Limit.of(size))
+                .stream()
+                .map(itemRequestMapper::toItemRequestSuggestionDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void suggestRequestsFor(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        Map<Long, Double> scores = requestMatcher.requestsFor(item);
+        if (scores.isEmpty()) {
+            return;
+        }
+        Long ownerId = item.getOwner().getId();
+        List<ItemRequestSuggestion> suggestions = itemRequestRepository.findAllById(scores.keySet())
+                .stream()
+                .filter(request -> !request.getRequester().getId().equals(ownerId))
+                .map(request -> toSuggestion(request, item, scores.get(request.getId())))
+                .collect(Collectors.toList());
+        suggestionRepository.saveAll(suggestions);
+        log.info("Item {} matched {} requests", item.getId(), suggestions.size());
+    }
+
+    private ItemRequestSuggestion toSuggestion(ItemRequest request, Item item, double score) {
+        return ItemRequestSuggestion.builder()
+                .request(request)
+                .item(item)
+                .score(score)
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    private List<ItemRequestWithItemsDto> enrichWithItems(List<ItemRequestRow> requests) {
         if (requests.isEmpty()) {
             return  Collections.emptyList();
         }
 
         List<Long> requestIds = requests.stream()
-                .map(ItemRequest::getId)
+                .map(ItemRequestRow::id)
                 .collect(Collectors.toList());
 
-        List<Item> items = itemRepository.findAllByItemRequestIdIn(requestIds);
+        List<RequestItemRow> items = itemRepository.findRequestItemRows(requestIds);
 
-        Map<Long, List<Item>> itemsByRequestId = items.stream()
-                .collect(Collectors.groupingBy(item -> item.getItemRequest().getId()));
+        Map<Long, List<ItemRequestItemDto>> itemsByRequestId = items.stream()
+                .collect(Collectors.groupingBy(RequestItemRow::requestId,
+                        Collectors.mapping(RequestItemRow::toItemDto, Collectors.toList())));
 
         return requests.stream()
-                .map(req -> {
-                    List<Item> it = itemsByRequestId.getOrDefault(req.getId(), Collections.emptyList());
-                    return itemRequestMapper.toItemRequestWithItemsDto(req, it);
-                })
+                .map(req -> req.toWithItemsDto(itemsByRequestId.getOrDefault(req.id(), Collections.emptyList())))
                 .collect(Collectors.toList());
     }
 
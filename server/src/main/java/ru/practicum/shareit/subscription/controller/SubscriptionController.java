@@ -0,0 +1,58 @@
+package ru.practicum.shareit.subscription.controller;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.subscription.dto.SubscriptionCreateDto;
+import ru.practicum.shareit.subscription.dto.SubscriptionMatchDto;
+import ru.practicum.shareit.subscription.dto.SubscriptionResponseDto;
+import ru.practicum.shareit.subscription.service.SubscriptionService;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/subscriptions")
+@Slf4j
+@Validated
+public class SubscriptionController {
+    private final SubscriptionService subscriptionService;
+
+    @PostMapping
+    public ResponseEntity<SubscriptionResponseDto> create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @RequestBody @Valid SubscriptionCreateDto dto) {
+        log.info("Server: Request to create subscription for user {}: {}", userId, dto);
+        SubscriptionResponseDto created = subscriptionService.create(userId, dto);
+        return new ResponseEntity<>(created, HttpStatus.CREATED);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<SubscriptionResponseDto>> getSubscriptions(
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Server: Request to get subscriptions of user {}", userId);
+        return new ResponseEntity<>(subscriptionService.getSubscriptions(userId), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/{subscriptionId}")
+    public ResponseEntity<Void> delete(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                       @PathVariable Long subscriptionId) {
+        log.info("Server: Request to delete subscription {} of user {}", subscriptionId, userId);
+        subscriptionService.delete(userId, subscriptionId);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @GetMapping("/inbox")
+    public ResponseEntity<List<SubscriptionMatchDto>> getInbox(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+            @RequestParam(defaultValue = "10") @Positive Integer size) {
+        log.info("Server: Request to get subscription inbox of user {}, from: {}, size: {}", userId, from, size);
+        return new ResponseEntity<>(subscriptionService.getInbox(userId, from, size), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.subscription.matcher;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Aho-Corasick automaton over a fixed set of lowercased keywords. {@link #find(String)} reports
+ * every keyword that starts a word of the text in one left-to-right pass, however many keywords
+ * there are. A keyword also matches the beginning of a longer word, the same prefix semantics
+ * item search uses.
+ */
+public final class KeywordAutomaton {
+    private static final int ROOT = 0;
+
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final List<String> keywords = new ArrayList<>();
+    private int[] failure;
+    private int[][] outputs;
+
+    public KeywordAutomaton(Collection<String> keywords) {
+        transitions.add(new HashMap<>());
+        List<List<Integer>> terminals = new ArrayList<>();
+        terminals.add(new ArrayList<>());
+        for (String keyword : keywords) {
+            if (keyword.isEmpty()) {
+                continue;
+            }
+            int state = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                Integer next = transitions.get(state).get(keyword.charAt(i));
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.get(state).put(keyword.charAt(i), next);
+                    transitions.add(new HashMap<>());
+                    terminals.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            terminals.get(state).add(this.keywords.size());
+            this.keywords.add(keyword);
+        }
+        link(terminals);
+    }
+
+    public int keywordCount() {
+        return keywords.size();
+    }
+
+    public Set<String> find(String text) {
+        Set<String> found = new HashSet<>();
+        if (text == null || keywords.isEmpty()) {
+            return found;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int state = ROOT;
+        for (int i = 0; i < lower.length(); i++) {
+            state = step(state, lower.charAt(i));
+            for (int keyword : outputs[state]) {
+                int start = i - keywords.get(keyword).length() + 1;
+                if (start == 0 || !Character.isLetterOrDigit(lower.charAt(start - 1))) {
+                    found.add(keywords.get(keyword));
+                }
+            }
+        }
+        return found;
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            Integer next = transitions.get(state).get(c);
+            if (next != null) {
+                return next;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = failure[state];
+        }
+    }
+
+    /**
+     * Computes failure links breadth first and folds the outputs of each state's failure chain
+     * into the state itself, so matching never walks the chain.
+     */
+    private void link(List<List<Integer>> terminals) {
+        failure = new int[transitions.size()];
+        outputs = new int[transitions.size()][];
+        outputs[ROOT] = terminals.get(ROOT).stream().mapToInt(Integer::intValue).toArray();
+        Queue<Integer> queue = new ArrayDeque<>(transitions.get(ROOT).values());
+        for (int child : transitions.get(ROOT).values()) {
+            failure[child] = ROOT;
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            List<Integer> output = new ArrayList<>(terminals.get(state));
+            for (int keyword : outputs[failure[state]]) {
+                output.add(keyword);
+            }
+            outputs[state] = output.stream().mapToInt(Integer::intValue).toArray();
+            for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                int child = edge.getValue();
+                int fallback = failure[state];
+                Integer target = transitions.get(fallback).get(edge.getKey());
+                while (target == null && fallback != ROOT) {
+                    fallback = failure[fallback];
+                    target = transitions.get(fallback).get(edge.getKey());
+                }
+                failure[child] = target != null ? target : ROOT;
+                queue.add(child);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.subscription.matcher;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.search.AfterCommit;
+import ru.practicum.shareit.item.search.SearchTokenizer;
+import ru.practicum.shareit.subscription.model.Subscription;
+import ru.practicum.shareit.subscription.repository.SubscriptionRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Matches item text against every saved subscription at once. A subscription matches when each
+ * of its keywords starts a word of the text. Subscription changes only mark the automaton stale;
+ * it is rebuilt into a fresh immutable snapshot on the next match, so matching never blocks on
+ * writers and a burst of subscriptions costs one rebuild.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SubscriptionMatcher {
+    private final SubscriptionRepository subscriptionRepository;
+
+    private final Map<String, Set<Long>> subscriptionsByKeyword = new HashMap<>();
+    private final Map<Long, Integer> keywordCounts = new HashMap<>();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean stale;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Subscription> subscriptions = subscriptionRepository.findAll();
+        synchronized (this) {
+            subscriptionsByKeyword.clear();
+            keywordCounts.clear();
+            subscriptions.forEach(subscription -> put(subscription.getId(), subscription.getKeywords()));
+            stale = true;
+        }
+        log.info("Loaded {} subscriptions into matcher", subscriptions.size());
+    }
+
+    /**
+     * Starts matching the subscription once the surrounding transaction commits.
+     */
+    public void add(Subscription subscription) {
+        Long id = subscription.getId();
+        String keywords = subscription.getKeywords();
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                put(id, keywords);
+                stale = true;
+            }
+        });
+    }
+
+    /**
+     * Stops matching the subscription once the surrounding transaction commits.
+     */
+    public void remove(Subscription subscription) {
+        Long id = subscription.getId();
+        String keywords = subscription.getKeywords();
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                for (String keyword : SearchTokenizer.tokenize(keywords)) {
+                    Set<Long> ids = subscriptionsByKeyword.get(keyword);
+                    if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                        subscriptionsByKeyword.remove(keyword);
+                    }
+                }
+                keywordCounts.remove(id);
+                stale = true;
+            }
+        });
+    }
+
+    /**
+     * Returns the ids of the subscriptions all of whose keywords occur in the text, scanning
+     * the text once.
+     */
+    public Set<Long> match(String text) {
+        Snapshot current = stale ? refresh() : snapshot;
+        Map<Long, Integer> hits = new HashMap<>();
+        for (String keyword : current.automaton().find(text)) {
+            for (Long id : current.subscriptionsByKeyword().get(keyword)) {
+                hits.merge(id, 1, Integer::sum);
+            }
+        }
+        Set<Long> matched = new HashSet<>();
+        hits.forEach((id, count) -> {
+            if (count.equals(current.keywordCounts().get(id))) {
+                matched.add(id);
+            }
+        });
+        return matched;
+    }
+
+    private synchronized Snapshot refresh() {
+        if (stale) {
+            Map<String, List<Long>> byKeyword = new HashMap<>();
+            subscriptionsByKeyword.forEach((keyword, ids) -> byKeyword.put(keyword, new ArrayList<>(ids)));
+            snapshot = new Snapshot(new KeywordAutomaton(byKeyword.keySet()), byKeyword, new HashMap<>(keywordCounts));
+            stale = false;
+        }
+        return snapshot;
+    }
+
+    private void put(Long id, String keywords) {
+        Set<String> tokens = SearchTokenizer.tokenize(keywords);
+        for (String keyword : tokens) {
+            subscriptionsByKeyword.computeIfAbsent(keyword, k -> new HashSet<>()).add(id);
+        }
+        keywordCounts.put(id, tokens.size());
+    }
+
+    private record Snapshot(KeywordAutomaton automaton,
+                            Map<String, List<Long>> subscriptionsByKeyword,
+                            Map<Long, Integer> keywordCounts) {
+        static final Snapshot EMPTY = new Snapshot(new KeywordAutomaton(List.of()), Map.of(), Map.of());
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.subscription.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.subscription.model.SubscriptionMatch;
+
+import java.util.List;
+
+public interface SubscriptionMatchRepository extends JpaRepository<SubscriptionMatch, Long> {
+
+    @Query("SELECT m " +
+           "FROM SubscriptionMatch m " +
+           "JOIN FETCH m.subscription s " +
+           "JOIN FETCH m.item " +
+           "WHERE s.subscriber.id = :subscriberId " +
+           "ORDER BY m.id DESC")
+    List<SubscriptionMatch> findInbox(@Param("subscriberId") Long subscriberId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SubscriptionMatch m WHERE m.subscription.id = :subscriptionId")
+    void deleteBySubscriptionId(@Param("subscriptionId") Long subscriptionId);
+}
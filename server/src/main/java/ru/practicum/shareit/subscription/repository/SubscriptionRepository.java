@@ -0,0 +1,10 @@
+package ru.practicum.shareit.subscription.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.subscription.model.Subscription;
+
+import java.util.List;
+
+public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
+    List<Subscription> findBySubscriberIdOrderByCreatedDesc(Long subscriberId);
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.subscription.service;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.subscription.dto.SubscriptionCreateDto;
+import ru.practicum.shareit.subscription.dto.SubscriptionMatchDto;
+import ru.practicum.shareit.subscription.dto.SubscriptionResponseDto;
+
+import java.util.List;
+
+public interface SubscriptionService {
+
+    SubscriptionResponseDto create(Long userId, SubscriptionCreateDto dto);
+
+    List<SubscriptionResponseDto> getSubscriptions(Long userId);
+
+    void delete(Long userId, Long subscriptionId);
+
+    List<SubscriptionMatchDto> getInbox(Long userId, Integer from, Integer size);
+
+    void notifyMatches(Item item);
+}
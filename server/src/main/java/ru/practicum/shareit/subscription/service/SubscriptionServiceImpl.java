@@ -0,0 +1,118 @@
+package ru.practicum.shareit.subscription.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ForbiddenException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.SearchTokenizer;
+import ru.practicum.shareit.subscription.dto.SubscriptionCreateDto;
+import ru.practicum.shareit.subscription.dto.SubscriptionMatchDto;
+import ru.practicum.shareit.subscription.dto.SubscriptionResponseDto;
+import ru.practicum.shareit.subscription.dto.mapper.SubscriptionMapper;
+import ru.practicum.shareit.subscription.matcher.SubscriptionMatcher;
+import ru.practicum.shareit.subscription.model.Subscription;
+import ru.practicum.shareit.subscription.model.SubscriptionMatch;
+import ru.practicum.shareit.subscription.repository.SubscriptionMatchRepository;
+import ru.practicum.shareit.subscription.repository.SubscriptionRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@AllArgsConstructor
+@Transactional(readOnly = true)
+public class SubscriptionServiceImpl implements SubscriptionService {
+    private static final int MAX_KEYWORDS = 10;
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionMatchRepository matchRepository;
+    private final UserRepository userRepository;
+    private final SubscriptionMatcher matcher;
+
+    @Override
+    @Transactional
+    public SubscriptionResponseDto create(Long userId, SubscriptionCreateDto dto) {
+        log.info("Creating subscription for user {} with keywords: {}", userId, dto.getKeywords());
+        User subscriber = getUserOrThrow(userId);
+        Set<String> keywords = SearchTokenizer.tokenize(dto.getKeywords());
+        if (keywords.isEmpty()) {
+            throw new BadRequestException("Subscription must contain at least one keyword");
+        }
+        if (keywords.size() > MAX_KEYWORDS) {
+            throw new BadRequestException("Subscription cannot contain more than " + MAX_KEYWORDS + " keywords");
+        }
+        Subscription subscription = subscriptionRepository.save(
+                SubscriptionMapper.toSubscription(String.join(" ", keywords), subscriber));
+        matcher.add(subscription);
+        return SubscriptionMapper.toResponseDto(subscription);
+    }
+
+    @Override
+    public List<SubscriptionResponseDto> getSubscriptions(Long userId) {
+        log.info("Getting subscriptions of user {}", userId);
+        getUserOrThrow(userId);
+        return subscriptionRepository.findBySubscriberIdOrderByCreatedDesc(userId)
+                .stream()
+                .map(SubscriptionMapper::toResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void delete(Long userId, Long subscriptionId) {
+        log.info("Deleting subscription {} of user {}", subscriptionId, userId);
+        Subscription subscription = subscriptionRepository.findById(subscriptionId)
+                .orElseThrow(() -> new NotFoundException("Subscription not found with id " + subscriptionId));
+        if (!subscription.getSubscriber().getId().equals(userId)) {
+            throw new ForbiddenException("User " + userId + " is not the owner of subscription " + subscriptionId);
+        }
+        matchRepository.deleteBySubscriptionId(subscriptionId);
+        subscriptionRepository.delete(subscription);
+        matcher.remove(subscription);
+    }
+
+    @Override
+    public List<SubscriptionMatchDto> getInbox(Long userId, Integer from, Integer size) {
+        log.info("Getting subscription inbox of user {}, from: {}, size: {}", userId, from, size);
+        getUserOrThrow(userId);
+        return matchRepository.findInbox(userId, PageRequest.of(from / size, size))
+                .stream()
+                .map(SubscriptionMapper::toMatchDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void notifyMatches(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        Set<Long> matched = matcher.match(item.getName() + " " + item.getDescription());
+        if (matched.isEmpty()) {
+            return;
+        }
+        Long ownerId = item.getOwner().getId();
+        List<SubscriptionMatch> matches = subscriptionRepository.findAllById(matched)
+                .stream()
+                .filter(subscription -> !Objects.equals(subscription.getSubscriber().getId(), ownerId))
+                .map(subscription -> SubscriptionMapper.toMatch(subscription, item))
+                .collect(Collectors.toList());
+        matchRepository.saveAll(matches);
+        log.info("Item {} matched {} subscriptions", item.getId(), matches.size());
+    }
+
+    private User getUserOrThrow(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("User not found with id " + id));
+    }
+}
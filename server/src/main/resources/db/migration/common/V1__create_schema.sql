@@ -38,6 +38,8 @@ CREATE TABLE IF NOT EXISTS bookings (
     CONSTRAINT FK_BOOKING_USER FOREIGN KEY (booker_id) REFERENCES users(id)
 );
 
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     text VARCHAR(500) NOT NULL,
@@ -47,4 +49,43 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT pk_comment PRIMARY KEY (id),
     CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items(id),
     CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users(id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_period ON bookings (item_id, start_date, end_date);
+
+CREATE TABLE IF NOT EXISTS subscriptions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    keywords VARCHAR(200) NOT NULL,
+    subscriber_id BIGINT NOT NULL,
+    created TIMESTAMP NOT NULL,
+    CONSTRAINT pk_subscription PRIMARY KEY (id),
+    CONSTRAINT fk_subscription_subscriber FOREIGN KEY (subscriber_id) REFERENCES users(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_subscriptions_subscriber ON subscriptions (subscriber_id);
+
+CREATE TABLE IF NOT EXISTS subscription_matches (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    subscription_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    created TIMESTAMP NOT NULL,
+    CONSTRAINT pk_subscription_match PRIMARY KEY (id),
+    CONSTRAINT fk_subscription_match_subscription FOREIGN KEY (subscription_id) REFERENCES subscriptions(id),
+    CONSTRAINT fk_subscription_match_item FOREIGN KEY (item_id) REFERENCES items(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_subscription_matches_subscription ON subscription_matches (subscription_id, id);
+
+CREATE TABLE IF NOT EXISTS item_request_suggestions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    request_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    score DOUBLE PRECISION NOT NULL,
+    created TIMESTAMP NOT NULL,
+    CONSTRAINT pk_item_request_suggestion PRIMARY KEY (id),
+    CONSTRAINT fk_suggestion_request FOREIGN KEY (request_id) REFERENCES item_requests(id),
+    CONSTRAINT fk_suggestion_item FOREIGN KEY (item_id) REFERENCES items(id),
+    CONSTRAINT uq_suggestion_request_item UNIQUE (request_id, item_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_request_suggestions_request ON item_request_suggestions (request_id, score);
@@ -0,0 +1,27 @@
+-- Built CONCURRENTLY so the migration does not block writes on a live table.
+-- Flyway runs this script outside a transaction; a failed build leaves an INVALID
+-- index behind that has to be dropped before the migration is repaired and rerun.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_booker_start
+    ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_booker_status_start
+    ON bookings (booker_id, status, start_date DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_item_status_start
+    ON bookings (item_id, status, start_date);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_status_period
+    ON bookings (status, start_date, end_date);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_owner
+    ON items (owner_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_item_request
+    ON items (item_request_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_item
+    ON comments (item_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_item_requests_requester_created
+    ON item_requests (requester_id, created DESC);
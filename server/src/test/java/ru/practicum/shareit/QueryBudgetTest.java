@@ -0,0 +1,130 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs read endpoints against the real services and fails when one of them issues more SQL
+ * statements than its budget. The data set has several rows per list, so a per-row lazy load
+ * pushes the count past the budget.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.SqlStatementCounter")
+@AutoConfigureMockMvc
+public class QueryBudgetTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int ROWS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking booking;
+    private ItemRequest request;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        owner = userRepository.save(new User(null, "Owner", "budget-owner@yandex.ru"));
+        booker = userRepository.save(new User(null, "Booker", "budget-booker@yandex.ru"));
+        request = itemRequestRepository.save(new ItemRequest(null, "Need a stick", booker, now));
+        for (int i = 0; i < ROWS; i++) {
+            item = itemRepository.save(new Item(null, "Stick " + i, "Hockey stick", owner, true, request,
+                    null, null));
+            User author = userRepository.save(new User(null, "Author " + i, "budget-author" + i + "@yandex.ru"));
+            commentRepository.save(new Comment(null, "Great", item, author, now));
+            bookingRepository.save(new Booking(null, now.minusDays(2 + i), now.minusDays(1 + i), item, author,
+                    BookingStatus.APPROVED));
+            booking = bookingRepository.save(new Booking(null, now.plusDays(1 + i), now.plusDays(2 + i), item,
+                    booker, BookingStatus.WAITING));
+            itemRequestRepository.save(new ItemRequest(null, "Need a drill " + i, owner, now));
+        }
+    }
+
+    @AfterEach
+    void clear() {
+        bookingRepository.deleteAll();
+        commentRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void itemEndpoints_stayWithinBudget() throws Exception {
+        expectAtMost(4, get("/items").header(USER_HEADER, owner.getId()), ROWS);
+        expectAtMost(3, get("/items").param("view", "SUMMARY").header(USER_HEADER, owner.getId()), ROWS);
+        expectAtMost(3, get("/items/{itemId}", item.getId()).header(USER_HEADER, owner.getId()), null);
+        expectAtMost(1, get("/items/{itemId}/comment", item.getId()).header(USER_HEADER, booker.getId()), 1);
+    }
+
+    @Test
+    void bookingEndpoints_stayWithinBudget() throws Exception {
+        expectAtMost(2, get("/bookings").param("size", "20").header(USER_HEADER, booker.getId()), ROWS);
+        expectAtMost(2, get("/bookings/owner").param("size", "20").header(USER_HEADER, owner.getId()), 2 * ROWS);
+        expectAtMost(2, get("/bookings/owner").param("state", "PAST").header(USER_HEADER, owner.getId()), ROWS);
+        expectAtMost(2, get("/bookings/owner").param("state", "FUTURE").header(USER_HEADER, owner.getId()), ROWS);
+        expectAtMost(1, get("/bookings/{bookingId}", booking.getId()).header(USER_HEADER, booker.getId()), null);
+    }
+
+    @Test
+    void requestEndpoints_stayWithinBudget() throws Exception {
+        expectAtMost(3, get("/requests").header(USER_HEADER, booker.getId()), 1);
+        expectAtMost(3, get("/requests/all").header(USER_HEADER, booker.getId()), ROWS);
+        expectAtMost(2, get("/requests/{requestId}", request.getId()).header(USER_HEADER, owner.getId()), null);
+    }
+
+    private void expectAtMost(int budget, MockHttpServletRequestBuilder request, Integer rows) throws Exception {
+        SqlStatementCounter.reset();
+        var result = mockMvc.perform(request).andExpect(status().isOk());
+        int statements = SqlStatementCounter.count();
+        if (rows != null) {
+            result.andExpect(jsonPath("$.length()").value(rows));
+        }
+        String uri = request.buildRequest(new MockServletContext()).getRequestURI();
+        assertTrue(statements <= budget, () -> String.format("%s issued %d SQL statements, budget is %d",
+                uri, statements, budget));
+    }
+}
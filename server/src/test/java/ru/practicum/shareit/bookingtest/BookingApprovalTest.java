@@ -0,0 +1,92 @@
+package ru.practicum.shareit.bookingtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs approvals through the real service, overlap index and database, so a rolled back
+ * approval has to leave the in-memory index as it found it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BookingApprovalTest {
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+        owner = userRepository.save(new User(null, "Owner", "approval-owner@yandex.ru"));
+        booker = userRepository.save(new User(null, "Booker", "approval-booker@yandex.ru"));
+        item = itemRepository.save(new Item(null, "Stick", "Hockey stick", owner, true, null, null, null));
+    }
+
+    @AfterEach
+    void clear() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void approveBooking_overlapLeavesRejectedApprovalWaiting() throws Exception {
+        bookingRepository.save(new Booking(null, base, base.plusDays(2), item, booker, BookingStatus.APPROVED));
+        Booking waiting = bookingRepository.save(new Booking(null, base.plusDays(1), base.plusDays(4), item, booker,
+                BookingStatus.WAITING));
+
+        mockMvc.perform(patch("/bookings/{bookingId}", waiting.getId())
+                        .header(HEADER, owner.getId())
+                        .param("approved", "true"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/bookings/{bookingId}", waiting.getId())
+                        .header(HEADER, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("WAITING"));
+        mockMvc.perform(post("/bookings")
+                        .header(HEADER, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new BookingCreateDto(base.plusDays(3), base.plusDays(4),
+                                item.getId()))))
+                .andExpect(status().isCreated());
+    }
+}
@@ -7,12 +7,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchCreateDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionsDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.pagination.BookingPage;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ConflictException;
@@ -21,12 +28,14 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.user.dto.UserResponseDto;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static java.util.Collections.emptyList;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.doThrow;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -68,7 +77,6 @@ public class BookingControllerTest {
                         true,
                         null,
                         null,
-                        emptyList(),
                         emptyList()),
                 new UserResponseDto(3L,
                         "Ivan",
@@ -117,6 +125,22 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.error").value("Bad request: End before start"));
     }
 
+    @Test
+    void createBookings_success() throws Exception {
+        given(service.createBookings(eq(3L), anyList())).willReturn(List.of(
+                new BookingBatchResultDto(0, 201, response, null),
+                new BookingBatchResultDto(1, 404, null, "Item not found with id 99")));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header(HEADER, 3L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new BookingBatchCreateDto(List.of(create, create)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].booking.id").value(100))
+                .andExpect(jsonPath("$[1].error").value("Item not found with id 99"));
+    }
+
     @Test
     void approveBooking_success() throws Exception {
         given(service.approveBooking(2L, 100L, true)).willReturn(response);
@@ -141,6 +165,50 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.error").value("Not found: Booking not found"));
     }
 
+    @Test
+    void approveBooking_throwConflict_exclusionConstraintViolated() throws Exception {
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")))
+                .when(service)
+                .approveBooking(anyLong(), anyLong(), anyBoolean());
+
+        mockMvc.perform(patch("/bookings/5")
+                        .header(HEADER, 2L)
+                        .param("approved", "true"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Conflict: Booking period overlaps an approved booking"));
+    }
+
+    @Test
+    void approveBooking_otherIntegrityViolation_isServerError() throws Exception {
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("null value in column", "23502")))
+                .when(service)
+                .approveBooking(anyLong(), anyLong(), anyBoolean());
+
+        mockMvc.perform(patch("/bookings/5")
+                        .header(HEADER, 2L)
+                        .param("approved", "true"))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void decideBookings_success() throws Exception {
+        given(service.decideBookings(eq(2L), anyList())).willReturn(List.of(
+                new BookingDecisionResultDto(100L, 200, BookingStatus.APPROVED, null),
+                new BookingDecisionResultDto(101L, 409, null, "Booking 101 is not in waiting state")));
+
+        mockMvc.perform(patch("/bookings/owner/decisions")
+                        .header(HEADER, 2L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new BookingDecisionsDto(List.of(
+                                new BookingDecisionDto(100L, true),
+                                new BookingDecisionDto(101L, false))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingStatus").value("APPROVED"))
+                .andExpect(jsonPath("$[1].status").value(409));
+    }
+
     @Test
     void getBookingById_success() throws Exception {
         given(service.getBookingById(3L, 100L)).willReturn(response);
@@ -165,8 +233,8 @@ public class BookingControllerTest {
 
     @Test
     void getBookingsByUser_success() throws Exception {
-        given(service.getBookingsByUser(3L, BookingState.ALL, 0, 10))
-                .willReturn(List.of(response));
+        given(service.getBookingsByUser(3L, BookingState.ALL, null, 10))
+                .willReturn(new BookingPage(List.of(response), null));
 
         mockMvc.perform(get("/bookings")
                         .header(HEADER, 3L))
@@ -177,7 +245,7 @@ public class BookingControllerTest {
 
     @Test
     void getBookingsByUser_throwNotFound() throws Exception {
-        given(service.getBookingsByUser(eq(99L), eq(BookingState.ALL), eq(0), eq(10)))
+        given(service.getBookingsByUser(eq(99L), eq(BookingState.ALL), isNull(), eq(10)))
                 .willThrow(new NotFoundException("User not found"));
 
         mockMvc.perform(get("/bookings")
@@ -188,18 +256,35 @@ public class BookingControllerTest {
 
     @Test
     void getBookingsByOwner_success() throws Exception {
-        given(service.getBookingsByOwner(2L, BookingState.ALL)).willReturn(List.of(response));
+        given(service.getBookingsByOwner(2L, BookingState.ALL, null, 10))
+                .willReturn(new BookingPage(List.of(response), null));
 
         mockMvc.perform(get("/bookings/owner")
                         .header(HEADER, 2L))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].status").value("WAITING"));
     }
 
+    @Test
+    void getBookingsByOwner_passesCursorAndReturnsNext() throws Exception {
+        given(service.getBookingsByOwner(2L, BookingState.WAITING, "abc", 1))
+                .willReturn(new BookingPage(List.of(response), "def"));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(HEADER, 2L)
+                        .param("state", "WAITING")
+                        .param("after", "abc")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"))
+                .andExpect(jsonPath("$[0].id").value(100));
+    }
+
     @Test
     void getBookingsByOwner_throwNotFound() throws Exception {
-        given(service.getBookingsByOwner(eq(99L), eq(BookingState.ALL)))
+        given(service.getBookingsByOwner(eq(99L), eq(BookingState.ALL), isNull(), eq(10)))
                 .willThrow(new NotFoundException("Owner not found"));
 
         mockMvc.perform(get("/bookings/owner")
@@ -209,6 +294,27 @@ public class BookingControllerTest {
     }
 
 
+    @Test
+    void getBookingsByOwner_throwBadRequest_zeroSize() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                        .header(HEADER, 2L)
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        then(service).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void getBookingsByUser_throwBadRequest_negativeSize() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .header(HEADER, 3L)
+                        .param("size", "-1"))
+                .andExpect(status().isBadRequest());
+
+        then(service).shouldHaveNoInteractions();
+    }
+
+
     private String toJson(Object obj) throws Exception {
         return mapper.writeValueAsString(obj);
     }
@@ -0,0 +1,213 @@
+package ru.practicum.shareit.bookingtest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.overlap.BookingOverlapIndex;
+import ru.practicum.shareit.booking.overlap.BookingOverlapProperties;
+import ru.practicum.shareit.booking.overlap.BookingSlot;
+import ru.practicum.shareit.booking.overlap.IntervalTree;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingOverlapIndexTest {
+    private static final Long ITEM_ID = 10L;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingOverlapProperties properties;
+    private BookingOverlapIndex index;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BookingOverlapProperties();
+        index = new BookingOverlapIndex(bookingRepository, properties);
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    void reserve_rejectsPeriodOverlappingApprovedBooking() {
+        stored(new Booking(1L, at(10), at(20), null, null, BookingStatus.APPROVED));
+
+        assertThrows(ConflictException.class, () -> index.reserve(ITEM_ID, at(15), at(25)));
+        assertThrows(ConflictException.class, () -> index.reserve(ITEM_ID, at(5), at(11)));
+        index.reserve(ITEM_ID, at(20), at(30));
+        index.reserve(ITEM_ID, at(0), at(10));
+
+        assertEquals(3, index.slots(ITEM_ID).size());
+        verify(bookingRepository, times(1)).findByItemIdAndStatusInEndingAfter(eq(ITEM_ID), anyCollection(), any());
+    }
+
+    @Test
+    void approve_rejectsSecondOverlappingWaitingBooking() {
+        stored();
+        index.bind(ITEM_ID, index.reserve(ITEM_ID, at(10), at(20)), 1L);
+        index.bind(ITEM_ID, index.reserve(ITEM_ID, at(15), at(25)), 2L);
+
+        index.approve(ITEM_ID, 1L);
+
+        assertThrows(ConflictException.class, () -> index.approve(ITEM_ID, 2L));
+        assertThrows(ConflictException.class, () -> index.reserve(ITEM_ID, at(12), at(13)));
+    }
+
+    @Test
+    void reject_freesPeriod() {
+        stored(new Booking(1L, at(10), at(20), null, null, BookingStatus.WAITING));
+        index.approve(ITEM_ID, 1L);
+        assertThrows(ConflictException.class, () -> index.reserve(ITEM_ID, at(10), at(20)));
+
+        index.reject(ITEM_ID, 1L);
+
+        index.reserve(ITEM_ID, at(10), at(20));
+        assertEquals(1, index.slots(ITEM_ID).size());
+    }
+
+    @Test
+    void approve_reloadsBookingsUnknownToTheTree() {
+        when(bookingRepository.findByItemIdAndStatusInEndingAfter(eq(ITEM_ID), anyCollection(), any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(new Booking(5L, at(10), at(20), null, null, BookingStatus.APPROVED),
+                        new Booking(6L, at(15), at(25), null, null, BookingStatus.WAITING)));
+        index.reserve(ITEM_ID, at(30), at(40));
+
+        assertThrows(ConflictException.class, () -> index.approve(ITEM_ID, 6L));
+        assertThrows(ConflictException.class, () -> index.reserve(ITEM_ID, at(12), at(13)));
+        assertEquals(3, index.slots(ITEM_ID).size());
+    }
+
+    @Test
+    void sweep_prunesEndedSlotsAndEvictsIdleTimelines() {
+        stored();
+        LocalDateTime now = LocalDateTime.now();
+        index.reserve(ITEM_ID, now.minusHours(2), now.minusHours(1));
+        index.reserve(ITEM_ID, at(10), at(20));
+
+        index.sweep();
+        assertEquals(1, index.slots(ITEM_ID).size());
+        assertEquals(1, index.timelineCount());
+
+        properties.setIdleTimeout(Duration.ZERO);
+        index.sweep();
+        assertEquals(0, index.timelineCount());
+        assertTrue(index.slots(ITEM_ID).isEmpty());
+        verify(bookingRepository, times(2)).findByItemIdAndStatusInEndingAfter(eq(ITEM_ID), anyCollection(), any());
+    }
+
+    @Test
+    void intervalTree_matchesBruteForce() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<BookingSlot> slots = new ArrayList<>();
+        stored();
+        for (int i = 0; i < 2000; i++) {
+            int from = random.nextInt(500);
+            BookingSlot slot = index.reserve(ITEM_ID, at(from), at(from + 1 + random.nextInt(20)));
+            if (random.nextInt(4) == 0 && !slots.isEmpty()) {
+                assertTrue(tree.remove(slots.remove(random.nextInt(slots.size()))));
+            }
+            tree.insert(slot);
+            slots.add(slot);
+
+            int qFrom = random.nextInt(520);
+            LocalDateTime qStart = at(qFrom);
+            LocalDateTime qEnd = at(qFrom + 1 + random.nextInt(10));
+            BookingSlot expected = slots.stream()
+                    .filter(s -> s.overlaps(qStart, qEnd))
+                    .min((a, b) -> a.getStart().equals(b.getStart())
+                            ? Long.compare(a.getSeq(), b.getSeq())
+                            : a.getStart().compareTo(b.getStart()))
+                    .orElse(null);
+            assertSame(expected, tree.findOverlap(qStart, qEnd, s -> true));
+        }
+        assertEquals(slots.size(), tree.size());
+    }
+
+    @Test
+    void concurrentBookings_neverApproveOverlappingPeriods() throws Exception {
+        stored();
+        int threads = 16;
+        int attemptsPerThread = 500;
+        AtomicLong ids = new AtomicLong();
+        AtomicInteger approvedCount = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        int from = random.nextInt(1000);
+                        try {
+                            BookingSlot slot = index.reserve(ITEM_ID, at(from), at(from + 1 + random.nextInt(5)));
+                            long id = ids.incrementAndGet();
+                            index.bind(ITEM_ID, slot, id);
+                            if (random.nextBoolean()) {
+                                index.approve(ITEM_ID, id);
+                                approvedCount.incrementAndGet();
+                            } else {
+                                index.reject(ITEM_ID, id);
+                            }
+                        } catch (ConflictException ignored) {
+                            // another thread holds the period
+                        }
+                    }
+                    return null;
+                }));
+            }
+            startGate.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<BookingSlot> approved = index.slots(ITEM_ID).stream()
+                .filter(slot -> slot.getStatus() == BookingStatus.APPROVED)
+                .toList();
+        assertEquals(approvedCount.get(), approved.size());
+        assertTrue(approved.size() > 0);
+        for (int i = 1; i < approved.size(); i++) {
+            assertFalse(approved.get(i).overlaps(approved.get(i - 1).getStart(), approved.get(i - 1).getEnd()),
+                    "approved bookings overlap: " + approved.get(i - 1).getBookingId() + " and "
+                            + approved.get(i).getBookingId());
+        }
+        verify(bookingRepository, times(1)).findByItemIdAndStatusInEndingAfter(eq(ITEM_ID), anyCollection(), any());
+    }
+
+    private void stored(Booking... bookings) {
+        when(bookingRepository.findByItemIdAndStatusInEndingAfter(eq(ITEM_ID), anyCollection(), any()))
+                .thenReturn(List.of(bookings));
+    }
+
+    private LocalDateTime at(int hour) {
+        return base.plusHours(hour);
+    }
+}
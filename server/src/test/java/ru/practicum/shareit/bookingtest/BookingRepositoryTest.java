@@ -1,21 +1,26 @@
 package ru.practicum.shareit.bookingtest;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.pagination.BookingCursor;
+import ru.practicum.shareit.booking.repository.AdjacentBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRow;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -23,6 +28,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 public class BookingRepositoryTest {
+    private static final BookingCursor FIRST = BookingCursor.FIRST;
+    private static final Limit PAGE = Limit.of(10);
 
     @Autowired
     private BookingRepository bookingRepository;
@@ -33,6 +40,9 @@ public class BookingRepositoryTest {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private User owner;
     private User booker;
     private User otherBooker;
@@ -45,7 +55,7 @@ public class BookingRepositoryTest {
 
     @BeforeEach
     void setUp() {
-        now = LocalDateTime.now();
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
 
         owner = userRepository.save(new User(null, "Owner", "owner@yandex.ru"));
         booker = userRepository.save(new User(null, "Broker", "broker@yandex.ru"));
@@ -97,75 +107,98 @@ public class BookingRepositoryTest {
 
     @Test
     void findPastBookings_success() {
-        List<Booking> past = bookingRepository.findPastBookings(booker.getId());
+        List<BookingRow> past = bookingRepository.findPastBookings(booker.getId(), FIRST.start(), FIRST.id(), PAGE);
         assertEquals(1, past.size());
-        assertEquals(pastApproved.getId(), past.getFirst().getId());
+        assertEquals(pastApproved.getId(), past.getFirst().id());
     }
 
     @Test
     void findPastBookings_emptyList() {
-        List<Booking> past = bookingRepository.findPastBookings(otherBooker.getId());
+        List<BookingRow> past = bookingRepository.findPastBookings(otherBooker.getId(), FIRST.start(), FIRST.id(), PAGE);
         assertTrue(past.isEmpty());
     }
 
     @Test
     void findCurrentBookings_success() {
-        List<Booking> current = bookingRepository.findCurrentBookings(booker.getId());
+        List<BookingRow> current = bookingRepository.findCurrentBookings(booker.getId(), FIRST.start(), FIRST.id(), PAGE);
         assertEquals(1, current.size());
-        assertEquals(currentWaiting.getId(), current.getFirst().getId());
+        assertEquals(currentWaiting.getId(), current.getFirst().id());
     }
 
     @Test
     void findCurrentBookings_emptyList() {
-        List<Booking> current = bookingRepository.findCurrentBookings(otherBooker.getId());
+        List<BookingRow> current = bookingRepository.findCurrentBookings(otherBooker.getId(), FIRST.start(), FIRST.id(), PAGE);
         assertTrue(current.isEmpty());
     }
 
     @Test
     void findFutureBookings_success() {
-        List<Booking> future = bookingRepository.findFutureBookings(booker.getId());
+        List<BookingRow> future = bookingRepository.findFutureBookings(booker.getId(), FIRST.start(), FIRST.id(), PAGE);
         assertEquals(1, future.size());
-        assertEquals(futureRejected.getId(), future.getFirst().getId());
+        assertEquals(futureRejected.getId(), future.getFirst().id());
     }
 
     @Test
     void findFutureBookings_emptyList() {
-        List<Booking> future = bookingRepository.findFutureBookings(otherBooker.getId());
+        List<BookingRow> future = bookingRepository.findFutureBookings(otherBooker.getId(), FIRST.start(), FIRST.id(), PAGE);
         assertTrue(future.isEmpty());
     }
 
     @Test
     void findBookingsByStatus_success() {
-        List<Booking> waiting = bookingRepository.findBookingsByStatus(booker.getId(), BookingStatus.WAITING);
+        List<BookingRow> waiting = bookingRepository.findBookingsByStatus(booker.getId(), BookingStatus.WAITING,
+                FIRST.start(), FIRST.id(), PAGE);
         assertEquals(1, waiting.size());
-        assertEquals(currentWaiting.getId(), waiting.getFirst().getId());
+        assertEquals(currentWaiting.getId(), waiting.getFirst().id());
     }
 
     @Test
     void findBookingsByStatus_emptyList() {
-        List<Booking> canceled = bookingRepository.findBookingsByStatus(booker.getId(), BookingStatus.CANCELED);
+        List<BookingRow> canceled = bookingRepository.findBookingsByStatus(booker.getId(), BookingStatus.CANCELED,
+                FIRST.start(), FIRST.id(), PAGE);
         assertTrue(canceled.isEmpty());
     }
 
     @Test
     void findBookingsByBookerId_withPaginationAndSorting() {
-        Page<Booking> page = bookingRepository.findBookingsByBookerId(
-                booker.getId(),
-                PageRequest.of(0, 2)
-        );
-        assertEquals(3, page.getTotalElements());
-        assertEquals(2, page.getContent().size());
-        assertEquals(futureRejected.getId(), page.getContent().getFirst().getId());
-        assertEquals(currentWaiting.getId(), page.getContent().get(1).getId());
+        List<BookingRow> first = bookingRepository.findBookingsByBookerId(booker.getId(), FIRST.start(), FIRST.id(),
+                Limit.of(2));
+        assertEquals(2, first.size());
+        assertEquals(futureRejected.getId(), first.getFirst().id());
+        assertEquals(currentWaiting.getId(), first.get(1).id());
+
+        BookingCursor cursor = BookingCursor.of(first.getLast());
+        List<BookingRow> second = bookingRepository.findBookingsByBookerId(booker.getId(), cursor.start(), cursor.id(),
+                Limit.of(2));
+        assertEquals(List.of(pastApproved.getId()), second.stream().map(BookingRow::id).toList());
+    }
+
+    @Test
+    void findBookingsByBookerId_projectsItemAndBookerColumns() {
+        BookingRow row = bookingRepository.findBookingsByBookerId(booker.getId(), FIRST.start(), FIRST.id(), PAGE)
+                .getLast();
+
+        assertEquals(new BookingRow(pastApproved.getId(), pastApproved.getStart(), pastApproved.getEnd(),
+                BookingStatus.APPROVED, item.getId(), item.getName(), item.getDescription(), owner.getId(), true,
+                booker.getId(), booker.getName(), booker.getEmail()), row);
+    }
+
+    @Test
+    void findById_fetchesItemAndBooker() {
+        entityManager.flush();
+        entityManager.clear();
+
+        Booking booking = bookingRepository.findById(pastApproved.getId()).orElseThrow();
+
+        assertTrue(Hibernate.isInitialized(booking.getItem()));
+        assertTrue(Hibernate.isInitialized(booking.getBooker()));
     }
 
     @Test
     void findBookingsByBookerId_emptyPage() {
-        Page<Booking> page = bookingRepository.findBookingsByBookerId(
-                booker.getId(),
-                PageRequest.of(5, 2)
-        );
-        assertTrue(page.getContent().isEmpty());
+        List<BookingRow> page = bookingRepository.findBookingsByBookerId(booker.getId(), pastApproved.getStart(),
+                pastApproved.getId(), Limit.of(2));
+        assertTrue(page.isEmpty());
     }
 
     @Test
@@ -182,15 +215,77 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findApprovedByItemIdsOrderByStartAsc_success() {
-        List<Booking> approved = bookingRepository.findApprovedByItemIdsOrderByStartAsc(List.of(item.getId()));
-        assertEquals(1, approved.size());
-        assertEquals(pastApproved.getId(), approved.getFirst().getId());
+    void findAdjacentApproved_returnsLatestStartedAndEarliestUpcoming() {
+        bookingRepository.save(new Booking(null, now.minusDays(5), now.minusDays(4), item, booker,
+                BookingStatus.APPROVED));
+        Booking next = bookingRepository.save(new Booking(null, now.plusDays(3), now.plusDays(4), item, booker,
+                BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, now.plusDays(5), now.plusDays(6), item, booker,
+                BookingStatus.APPROVED));
+
+        List<AdjacentBooking> adjacent = bookingRepository.findAdjacentApproved(List.of(item.getId()), now);
+
+        assertEquals(2, adjacent.size());
+        for (AdjacentBooking booking : adjacent) {
+            assertEquals(item.getId(), booking.getItemId());
+            assertEquals(booking.getLast() ? pastApproved.getId() : next.getId(), booking.getBookingId());
+        }
+    }
+
+    @Test
+    void findAdjacentApproved_emptyList() {
+        assertTrue(bookingRepository.findAdjacentApproved(List.of(99L), now).isEmpty());
+    }
+
+    @Test
+    void decideWaiting_updatesOnlyWaitingBookingOfOwner() {
+        assertEquals(0, bookingRepository.decideWaiting(currentWaiting.getId(), booker.getId(),
+                BookingStatus.APPROVED));
+        assertEquals(0, bookingRepository.decideWaiting(futureRejected.getId(), owner.getId(),
+                BookingStatus.APPROVED));
+        assertEquals(0, bookingRepository.decideWaiting(-1L, owner.getId(), BookingStatus.APPROVED));
+
+        assertEquals(1, bookingRepository.decideWaiting(currentWaiting.getId(), owner.getId(),
+                BookingStatus.APPROVED));
+
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(currentWaiting.getId())
+                .orElseThrow().getStatus());
+        assertEquals(0, bookingRepository.decideWaiting(currentWaiting.getId(), owner.getId(),
+                BookingStatus.REJECTED));
     }
 
     @Test
-    void findApprovedByItemIdsOrderByStartAsc_emptyList() {
-        List<Booking> approved = bookingRepository.findApprovedByItemIdsOrderByStartAsc(List.of(99L));
-        assertTrue(approved.isEmpty());
+    void decideAllWaiting_updatesOnlyWaitingBookingsOfOwner() {
+        Booking futureWaiting = bookingRepository.save(new Booking(null, now.plusDays(3), now.plusDays(4), item,
+                otherBooker, BookingStatus.WAITING));
+        List<Long> ids = List.of(currentWaiting.getId(), futureWaiting.getId(), futureRejected.getId());
+
+        assertEquals(0, bookingRepository.decideAllWaiting(ids, booker.getId(), BookingStatus.APPROVED));
+        assertEquals(2, bookingRepository.decideAllWaiting(ids, owner.getId(), BookingStatus.APPROVED));
+
+        List<Booking> reloaded = bookingRepository.findAllWithItemByIdIn(ids);
+        assertEquals(3, reloaded.size());
+        assertEquals(owner.getId(), reloaded.getFirst().getItem().getOwner().getId());
+        assertEquals(2, reloaded.stream().filter(b -> b.getStatus() == BookingStatus.APPROVED).count());
+    }
+
+    @Test
+    void findBookingsByOwner_keysetPages() {
+        Booking sameStart = bookingRepository.save(new Booking(null, futureRejected.getStart(),
+                futureRejected.getEnd(), item, otherBooker, BookingStatus.WAITING));
+
+        List<BookingRow> first = bookingRepository.findBookingsByOwner(owner.getId(), FIRST.start(), FIRST.id(), Limit.of(2));
+        assertEquals(List.of(sameStart.getId(), futureRejected.getId()), first.stream().map(BookingRow::id).toList());
+
+        BookingRow last = first.getLast();
+        List<BookingRow> second = bookingRepository.findBookingsByOwner(owner.getId(), last.start(), last.id(),
+                Limit.of(2));
+        assertEquals(List.of(currentWaiting.getId(), pastApproved.getId()),
+                second.stream().map(BookingRow::id).toList());
+
+        List<BookingRow> waiting = bookingRepository.findBookingsByOwnerAndStatus(owner.getId(), BookingStatus.WAITING,
+                LocalDateTime.of(9999, 1, 1, 0, 0), Long.MAX_VALUE, Limit.of(10));
+        assertEquals(List.of(sameStart.getId(), currentWaiting.getId()), waiting.stream().map(BookingRow::id).toList());
+        assertTrue(bookingRepository.findPastBookingsByOwner(booker.getId(), FIRST.start(), FIRST.id(), Limit.of(10)).isEmpty());
     }
 }
@@ -3,20 +3,28 @@ package ru.practicum.shareit.bookingtest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.lock.ItemLocks;
+import ru.practicum.shareit.booking.overlap.BookingOverlapIndex;
+import ru.practicum.shareit.booking.pagination.BookingCursor;
+import ru.practicum.shareit.booking.pagination.BookingPage;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRow;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
@@ -27,6 +35,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -44,6 +53,12 @@ public class BookingServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private BookingOverlapIndex overlapIndex;
+
+    @Mock
+    private ItemLocks itemLocks;
+
     @InjectMocks
     private BookingServiceImpl service;
 
@@ -87,6 +102,7 @@ public class BookingServiceImplTest {
 
         assertEquals(booking.getId(), result.getId());
         assertEquals(BookingStatus.WAITING, result.getStatus());
+        then(itemLocks).should().lock(item.getId());
         then(bookingRepository).should().save(any(Booking.class));
     }
 
@@ -110,6 +126,18 @@ public class BookingServiceImplTest {
         then(bookingRepository).should(never()).save(any());
     }
 
+    @Test
+    void createBooking_throwConflict_periodAlreadyBooked() {
+        optionalBooker();
+        optionalItem();
+        given(overlapIndex.reserve(item.getId(), start, end)).willThrow(new ConflictException("booked"));
+
+        assertThrows(ConflictException.class,
+                () -> service.createBooking(booker.getId(), create));
+
+        then(bookingRepository).should(never()).save(any());
+    }
+
     @Test
     void createBooking_throwForbidden_userIsOwner() {
         optionalOwner();
@@ -142,25 +170,106 @@ public class BookingServiceImplTest {
         then(bookingRepository).should(never()).save(any());
     }
 
+    @Test
+    void createBookings_returnsResultPerEntry() {
+        optionalBooker();
+        Item unavailable = new Item(11L, "Drill", "Cordless", owner, false, null, null, null);
+        Item own = new Item(12L, "Tent", "Two-person", booker, true, null, null, null);
+        given(itemRepository.findAllById(Set.of(10L, 11L, 12L, 99L))).willReturn(List.of(item, unavailable, own));
+        LocalDateTime busy = start.plusDays(10);
+        given(overlapIndex.reserve(eq(item.getId()), any(), any())).willAnswer(inv -> {
+            if (busy.equals(inv.getArgument(1))) {
+                throw new ConflictException("booked");
+            }
+            return null;
+        });
+        given(bookingRepository.saveAll(anyList())).willAnswer(inv -> {
+            List<Booking> bookings = inv.getArgument(0);
+            bookings.forEach(b -> b.setId(100L));
+            return bookings;
+        });
+
+        List<BookingBatchResultDto> results = service.createBookings(booker.getId(), List.of(
+                create,
+                new BookingCreateDto(start, end, 99L),
+                new BookingCreateDto(start, end, unavailable.getId()),
+                new BookingCreateDto(end, start, item.getId()),
+                new BookingCreateDto(busy, busy.plusDays(1), item.getId()),
+                new BookingCreateDto(start, end, own.getId())));
+
+        assertEquals(List.of(201, 404, 400, 400, 409, 403), results.stream().map(BookingBatchResultDto::getStatus).toList());
+        assertEquals(100L, results.getFirst().getBooking().getId());
+        assertNull(results.get(4).getBooking());
+        then(itemLocks).should().lockAll(List.of(item.getId(), item.getId()));
+        then(itemLocks).shouldHaveNoMoreInteractions();
+        then(bookingRepository).should().saveAll(argThat(bookings -> ((List<?>) bookings).size() == 1));
+    }
+
     @Test
     void approveBooking_success_approved() {
+        given(bookingRepository.decideWaiting(booking.getId(), owner.getId(), BookingStatus.APPROVED))
+                .willAnswer(inv -> {
+                    booking.setStatus(BookingStatus.APPROVED);
+                    return 1;
+                });
         optionalBooking();
-        willAnswer(inv -> inv.getArgument(0)).given(bookingRepository).save(any(Booking.class));
 
         BookingResponseDto result = service.approveBooking(owner.getId(), booking.getId(), true);
 
         assertEquals(BookingStatus.APPROVED, result.getStatus());
-        then(bookingRepository).should().save(booking);
+        InOrder inOrder = inOrder(overlapIndex, bookingRepository);
+        inOrder.verify(overlapIndex).approve(item.getId(), booking.getId());
+        inOrder.verify(bookingRepository).decideWaiting(booking.getId(), owner.getId(), BookingStatus.APPROVED);
+        then(bookingRepository).should(never()).save(any());
+    }
+
+    @Test
+    void approveBooking_locksItemAcrossInstancesBeforeUpdate() {
+        given(itemLocks.locksAcrossInstances()).willReturn(true);
+        given(bookingRepository.decideWaiting(booking.getId(), owner.getId(), BookingStatus.APPROVED)).willReturn(1);
+        optionalBooking();
+
+        service.approveBooking(owner.getId(), booking.getId(), true);
+
+        InOrder inOrder = inOrder(itemLocks, overlapIndex, bookingRepository);
+        inOrder.verify(itemLocks).lockAcrossInstances(Set.of(item.getId()));
+        inOrder.verify(overlapIndex).reload(item.getId());
+        inOrder.verify(overlapIndex).approve(item.getId(), booking.getId());
+        inOrder.verify(bookingRepository).decideWaiting(booking.getId(), owner.getId(), BookingStatus.APPROVED);
+    }
+
+    @Test
+    void approveBooking_throwConflict_overlapsApprovedBooking() {
+        optionalBooking();
+        willThrow(new ConflictException("overlap")).given(overlapIndex).approve(item.getId(), booking.getId());
+
+        assertThrows(ConflictException.class,
+                () -> service.approveBooking(owner.getId(), booking.getId(), true));
+
+        then(bookingRepository).should(never()).decideWaiting(any(), any(), any());
     }
 
     @Test
     void approvedBooking_success_rejected() {
+        given(bookingRepository.decideWaiting(booking.getId(), owner.getId(), BookingStatus.REJECTED)).willReturn(1);
+        booking.setStatus(BookingStatus.REJECTED);
         optionalBooking();
-        willAnswer(inv -> inv.getArgument(0)).given(bookingRepository).save(any(Booking.class));
 
         BookingResponseDto result = service.approveBooking(owner.getId(), booking.getId(), false);
 
         assertEquals(BookingStatus.REJECTED, result.getStatus());
+        then(overlapIndex).should().reject(item.getId(), booking.getId());
+    }
+
+    @Test
+    void approvedBooking_throwConflict_alreadyDecided() {
+        booking.setStatus(BookingStatus.APPROVED);
+        optionalBooking();
+
+        assertThrows(ConflictException.class,
+                () -> service.approveBooking(owner.getId(), booking.getId(), false));
+
+        then(overlapIndex).shouldHaveNoInteractions();
     }
 
     @Test
@@ -169,6 +278,8 @@ public class BookingServiceImplTest {
 
         assertThrows(ForbiddenException.class,
                 () -> service.approveBooking(booker.getId(), booking.getId(), true));
+
+        then(overlapIndex).shouldHaveNoInteractions();
     }
 
     @Test
@@ -178,7 +289,41 @@ public class BookingServiceImplTest {
         assertThrows(NotFoundException.class,
                 () -> service.approveBooking(owner.getId(), booking.getId(), true));
 
-        then(bookingRepository).should(never()).save(any());
+        then(overlapIndex).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void decideBookings_returnsOutcomePerDecision() {
+        Booking second = new Booking(101L, start, end, item, booker, BookingStatus.WAITING);
+        Booking decided = new Booking(102L, start, end, item, booker, BookingStatus.APPROVED);
+        Item foreignItem = new Item(11L, "Drill", "Cordless", booker, true, null, null, null);
+        Booking foreign = new Booking(103L, start, end, foreignItem, owner, BookingStatus.WAITING);
+        given(bookingRepository.findAllWithItemByIdIn(Set.of(100L, 101L, 102L, 103L, 999L)))
+                .willReturn(List.of(booking, second, decided, foreign));
+        willThrow(new ConflictException("overlap")).given(overlapIndex).approve(item.getId(), 101L);
+        given(bookingRepository.decideAllWaiting(List.of(100L), owner.getId(), BookingStatus.REJECTED)).willReturn(1);
+
+        List<BookingDecisionResultDto> results = service.decideBookings(owner.getId(), List.of(
+                new BookingDecisionDto(100L, false),
+                new BookingDecisionDto(101L, true),
+                new BookingDecisionDto(102L, true),
+                new BookingDecisionDto(103L, true),
+                new BookingDecisionDto(999L, true),
+                new BookingDecisionDto(100L, true)));
+
+        assertEquals(List.of(200, 409, 409, 403, 404, 400),
+                results.stream().map(BookingDecisionResultDto::getStatus).toList());
+        assertEquals(BookingStatus.REJECTED, results.getFirst().getBookingStatus());
+        then(bookingRepository).should(never()).decideAllWaiting(any(), any(), eq(BookingStatus.APPROVED));
+    }
+
+    @Test
+    void decideBookings_throwConflict_decidedConcurrently() {
+        given(bookingRepository.findAllWithItemByIdIn(Set.of(100L))).willReturn(List.of(booking));
+        given(bookingRepository.decideAllWaiting(List.of(100L), owner.getId(), BookingStatus.APPROVED)).willReturn(0);
+
+        assertThrows(ConflictException.class,
+                () -> service.decideBookings(owner.getId(), List.of(new BookingDecisionDto(100L, true))));
     }
 
     @Test
@@ -215,38 +360,83 @@ public class BookingServiceImplTest {
     @Test
     void getBookingsByUser_success() {
         optionalBooker();
-        Page<Booking> page = new PageImpl<>(List.of(booking));
-        given(bookingRepository.findBookingsByBookerId(eq(booker.getId()), any(PageRequest.class)))
-                .willReturn(page);
+        given(bookingRepository.findBookingsByBookerId(booker.getId(), BookingCursor.FIRST.start(),
+                BookingCursor.FIRST.id(), Limit.of(11))).willReturn(List.of(row(booking)));
 
-        List<BookingResponseDto> result = service.getBookingsByUser(booker.getId(), BookingState.ALL, 0, 10);
+        BookingPage result = service.getBookingsByUser(booker.getId(), BookingState.ALL, null, 10);
 
-        assertEquals(1, result.size());
-        assertEquals(booking.getId(), result.getFirst().getId());
+        assertEquals(1, result.bookings().size());
+        assertEquals(booking.getId(), result.bookings().getFirst().getId());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void getBookingsByUser_everyStateIsBoundedByPageSize() {
+        optionalBooker();
+        Limit limit = Limit.of(3);
+        LocalDateTime afterStart = BookingCursor.FIRST.start();
+        Long afterId = BookingCursor.FIRST.id();
+
+        service.getBookingsByUser(booker.getId(), BookingState.CURRENT, null, 2);
+        service.getBookingsByUser(booker.getId(), BookingState.PAST, null, 2);
+        service.getBookingsByUser(booker.getId(), BookingState.FUTURE, null, 2);
+        service.getBookingsByUser(booker.getId(), BookingState.WAITING, null, 2);
+        service.getBookingsByUser(booker.getId(), BookingState.REJECTED, null, 2);
+
+        then(bookingRepository).should().findCurrentBookings(booker.getId(), afterStart, afterId, limit);
+        then(bookingRepository).should().findPastBookings(booker.getId(), afterStart, afterId, limit);
+        then(bookingRepository).should().findFutureBookings(booker.getId(), afterStart, afterId, limit);
+        then(bookingRepository).should().findBookingsByStatus(booker.getId(), BookingStatus.WAITING,
+                afterStart, afterId, limit);
+        then(bookingRepository).should().findBookingsByStatus(booker.getId(), BookingStatus.REJECTED,
+                afterStart, afterId, limit);
     }
 
     @Test
     void getBookingsByUser_throwNotFound_bookerNotFound() {
         emptyBooker();
         assertThrows(NotFoundException.class,
-                () -> service.getBookingsByUser(booker.getId(), BookingState.ALL, 0, 10));
+                () -> service.getBookingsByUser(booker.getId(), BookingState.ALL, null, 10));
     }
 
     @Test
     void getBookingsByOwner_success() {
         optionalOwner();
-        given(bookingRepository.findBookingsByOwner(owner.getId())).willReturn(List.of(booking));
-        List<BookingResponseDto> result = service.getBookingsByOwner(owner.getId(), BookingState.ALL);
+        given(bookingRepository.findBookingsByOwner(owner.getId(), BookingCursor.FIRST.start(),
+                BookingCursor.FIRST.id(), Limit.of(11))).willReturn(List.of(row(booking)));
+        BookingPage result = service.getBookingsByOwner(owner.getId(), BookingState.ALL, null, 10);
+
+        assertEquals(1, result.bookings().size());
+        assertEquals(booking.getId(), result.bookings().getFirst().getId());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void getBookingsByOwner_returnsCursorOfLastBookingWhenMoreExist() {
+        optionalOwner();
+        Booking older = new Booking(99L, start.minusDays(1), end, item, booker, BookingStatus.WAITING);
+        BookingCursor after = new BookingCursor(start.plusDays(5), 200L);
+        given(bookingRepository.findBookingsByOwnerAndStatus(owner.getId(), BookingStatus.WAITING, after.start(),
+                after.id(), Limit.of(2))).willReturn(List.of(row(booking), row(older)));
+
+        BookingPage result = service.getBookingsByOwner(owner.getId(), BookingState.WAITING, after.encode(), 1);
 
-        assertEquals(1, result.size());
-        assertEquals(booking.getId(), result.getFirst().getId());
+        assertEquals(List.of(booking.getId()), result.bookings().stream().map(BookingResponseDto::getId).toList());
+        assertEquals(BookingCursor.of(row(booking)), BookingCursor.decode(result.nextCursor()));
+    }
+
+    @Test
+    void getBookingsByOwner_throwBadRequest_invalidCursor() {
+        optionalOwner();
+        assertThrows(BadRequestException.class,
+                () -> service.getBookingsByOwner(owner.getId(), BookingState.ALL, "not-a-cursor", 10));
     }
 
     @Test
     void getBookingsByOwner_throwNotFound_ownerNotFound() {
         emptyOwner();
         assertThrows(NotFoundException.class,
-                () -> service.getBookingsByOwner(owner.getId(), BookingState.ALL));
+                () -> service.getBookingsByOwner(owner.getId(), BookingState.ALL, null, 10));
     }
 
     private void optionalBooker() {
@@ -280,4 +470,12 @@ public class BookingServiceImplTest {
     private void emptyOwner() {
         given(userRepository.findById(owner.getId())).willReturn(Optional.empty());
     }
+
+    private static BookingRow row(Booking booking) {
+        Item item = booking.getItem();
+        User booker = booking.getBooker();
+        return new BookingRow(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                item.getId(), item.getName(), item.getDescription(), item.getOwner().getId(), item.getAvailable(),
+                booker.getId(), booker.getName(), booker.getEmail());
+    }
 }
@@ -0,0 +1,243 @@
+package ru.practicum.shareit.bookingtest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.lock.ItemLocks;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.pipeline.BookingPipelineProperties;
+import ru.practicum.shareit.booking.pipeline.BookingWritePipeline;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingWritePipelineTest {
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private ItemLocks itemLocks;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingPipelineProperties properties;
+    private BookingWritePipeline pipeline;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BookingPipelineProperties();
+        properties.setWindow(Duration.ofMillis(200));
+        properties.setTimeout(Duration.ofSeconds(5));
+        callers = Executors.newFixedThreadPool(20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+        callers.shutdownNow();
+    }
+
+    @Test
+    void createBooking_disabledCallsServiceDirectly() {
+        pipeline = start(false);
+        BookingCreateDto dto = dto(1L);
+        when(bookingService.createBooking(5L, dto)).thenReturn(response(1L));
+
+        assertEquals(1L, pipeline.createBooking(5L, dto).getId());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void createBooking_concurrentRequestsShareOneCommit() throws Exception {
+        pipeline = start(true);
+        inTransactions();
+        when(bookingService.createBooking(anyLong(), any())).thenAnswer(inv -> {
+            BookingCreateDto dto = inv.getArgument(1);
+            return response(dto.getItemId());
+        });
+
+        List<CompletableFuture<BookingResponseDto>> results = submitAll(20);
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals((long) i, results.get(i).get(5, TimeUnit.SECONDS).getId());
+        }
+        verify(bookingService, times(20)).createBooking(anyLong(), any());
+        verify(transactionManager, atMost(3)).commit(any());
+    }
+
+    @Test
+    void createBooking_batchLocksItsItemsBeforeCreating() throws Exception {
+        pipeline = start(true);
+        inTransactions();
+        when(bookingService.createBooking(anyLong(), any())).thenAnswer(inv -> {
+            BookingCreateDto dto = inv.getArgument(1);
+            return response(dto.getItemId());
+        });
+
+        for (CompletableFuture<BookingResponseDto> result : submitAll(3)) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+
+        InOrder inOrder = inOrder(itemLocks, bookingService);
+        inOrder.verify(itemLocks).lockAll(anyCollection());
+        inOrder.verify(bookingService, atLeastOnce()).createBooking(anyLong(), any());
+        ArgumentCaptor<Collection<Long>> locked = ArgumentCaptor.captor();
+        verify(itemLocks, atLeastOnce()).lockAll(locked.capture());
+        assertEquals(Set.of(0L, 1L, 2L), locked.getAllValues().stream()
+                .flatMap(Collection::stream)
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void createBooking_rejectedRequestDoesNotFailBatch() throws Exception {
+        pipeline = start(true);
+        inTransactions();
+        when(bookingService.createBooking(anyLong(), any())).thenAnswer(inv -> {
+            BookingCreateDto dto = inv.getArgument(1);
+            if (dto.getItemId() == 3L) {
+                throw new ConflictException("booked");
+            }
+            return response(dto.getItemId());
+        });
+
+        List<CompletableFuture<BookingResponseDto>> results = submitAll(5);
+
+        CompletableFuture<BookingResponseDto> rejected = results.get(3);
+        Exception e = assertThrows(Exception.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ConflictException.class, e.getCause());
+        assertEquals(4L, results.get(4).get(5, TimeUnit.SECONDS).getId());
+    }
+
+    @Test
+    void createBooking_failedCommitIsRetriedPerRequest() throws Exception {
+        pipeline = start(true);
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        doThrow(new DataIntegrityViolationException("batch failed"))
+                .doNothing()
+                .when(transactionManager).commit(any());
+        when(bookingService.createBooking(anyLong(), any())).thenAnswer(inv -> {
+            BookingCreateDto dto = inv.getArgument(1);
+            return response(dto.getItemId());
+        });
+
+        List<CompletableFuture<BookingResponseDto>> results = submitAll(3);
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals((long) i, results.get(i).get(5, TimeUnit.SECONDS).getId());
+        }
+    }
+
+    @Test
+    void createBooking_timeoutWithdrawsQueuedRequest() throws Exception {
+        properties.setWindow(Duration.ofMillis(1));
+        properties.setTimeout(Duration.ofMillis(200));
+        pipeline = start(true);
+        inTransactions();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BookingCreateDto first = dto(1L);
+        BookingCreateDto second = dto(2L);
+        when(bookingService.createBooking(1L, first)).thenAnswer(inv -> {
+            writing.countDown();
+            release.await();
+            return response(1L);
+        });
+
+        CompletableFuture<BookingResponseDto> slow = CompletableFuture.supplyAsync(
+                () -> pipeline.createBooking(1L, first), callers);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ServiceUnavailableException.class, () -> pipeline.createBooking(1L, second));
+        release.countDown();
+
+        assertEquals(1L, slow.get(5, TimeUnit.SECONDS).getId());
+        verify(bookingService, never()).createBooking(1L, second);
+    }
+
+    @Test
+    void createBooking_writerSurvivesErrorInBatch() throws Exception {
+        properties.setWindow(Duration.ofMillis(1));
+        pipeline = start(true);
+        inTransactions();
+        BookingCreateDto failing = dto(1L);
+        BookingCreateDto next = dto(2L);
+        when(bookingService.createBooking(1L, failing)).thenThrow(new StackOverflowError("boom"));
+        when(bookingService.createBooking(1L, next)).thenReturn(response(2L));
+
+        assertThrows(IllegalStateException.class, () -> pipeline.createBooking(1L, failing));
+
+        assertEquals(2L, pipeline.createBooking(1L, next).getId());
+    }
+
+    private BookingWritePipeline start(boolean enabled) {
+        properties.setEnabled(enabled);
+        BookingWritePipeline started = new BookingWritePipeline(bookingService, itemLocks, properties,
+                transactionManager);
+        started.start();
+        return started;
+    }
+
+    private void inTransactions() {
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+    }
+
+    private List<CompletableFuture<BookingResponseDto>> submitAll(int count) {
+        CountDownLatch gate = new CountDownLatch(1);
+        List<CompletableFuture<BookingResponseDto>> results = new ArrayList<>();
+        for (long i = 0; i < count; i++) {
+            BookingCreateDto dto = dto(i);
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return pipeline.createBooking(1L, dto);
+            }, callers));
+        }
+        gate.countDown();
+        return results;
+    }
+
+    private static BookingCreateDto dto(long itemId) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new BookingCreateDto(start, start.plusDays(1), itemId);
+    }
+
+    private static BookingResponseDto response(long id) {
+        return new BookingResponseDto(id, null, null, null, null, BookingStatus.WAITING);
+    }
+}
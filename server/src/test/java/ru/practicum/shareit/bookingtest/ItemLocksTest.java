@@ -0,0 +1,191 @@
+package ru.practicum.shareit.bookingtest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.lock.ItemLockProperties;
+import ru.practicum.shareit.booking.lock.ItemLocks;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemLocksTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ItemLockProperties properties;
+    private ItemLocks locks;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ItemLockProperties();
+        properties.setTimeout(Duration.ofMillis(100));
+        locks = new ItemLocks(properties, jdbcTemplate);
+        executor = Executors.newSingleThreadExecutor();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    void lock_sameItemWaitsUntilTransactionCompletes() throws Exception {
+        locks.lock(1L);
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> inOtherTransaction(1L).get(1, TimeUnit.SECONDS));
+        assertInstanceOf(ConflictException.class, e.getCause());
+
+        complete();
+        inOtherTransaction(1L).get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void lock_differentStripesDoNotContend() throws Exception {
+        long other = 2L;
+        while (locks.stripeIndex(other) == locks.stripeIndex(1L)) {
+            other++;
+        }
+        locks.lock(1L);
+
+        inOtherTransaction(other).get(1, TimeUnit.SECONDS);
+        complete();
+    }
+
+    @Test
+    void lock_isReentrantWithinTransaction() throws Exception {
+        locks.lock(1L);
+        locks.lock(1L);
+        complete();
+
+        inOtherTransaction(1L).get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void lockAll_takesStripesInStripeOrder() throws Exception {
+        long first = 1L;
+        while (locks.stripeIndex(first) == 0) {
+            first++;
+        }
+        long second = first + 1;
+        while (locks.stripeIndex(second) >= locks.stripeIndex(first)) {
+            second++;
+        }
+        List<Long> idOrder = List.of(first, second);
+        locks.lock(second);
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> inOtherTransaction(idOrder).get(1, TimeUnit.SECONDS));
+        assertEquals("Item " + second + " is busy, try again later", e.getCause().getMessage());
+
+        locks.lock(first);
+        complete();
+    }
+
+    @Test
+    void lockAll_takesSharedStripeOnce() throws Exception {
+        long sameStripe = 2L;
+        while (locks.stripeIndex(sameStripe) != locks.stripeIndex(1L)) {
+            sameStripe++;
+        }
+
+        locks.lockAll(List.of(1L, sameStripe, 1L));
+
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+        complete();
+        inOtherTransaction(sameStripe).get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void lock_takesNoAdvisoryLock() {
+        properties.setAdvisory(true);
+
+        locks.lock(7L);
+
+        verifyNoInteractions(jdbcTemplate);
+        complete();
+    }
+
+    @Test
+    void lockAcrossInstances_takesAdvisoryLocksInIdOrder() {
+        properties.setAdvisory(true);
+        long large = Integer.MAX_VALUE + 5L;
+
+        locks.lockAcrossInstances(List.of(large, 7L, 7L));
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).query(eq("SELECT pg_advisory_xact_lock(?)"), any(ResultSetExtractor.class),
+                eq(ItemLocks.advisoryKey(7L)));
+        inOrder.verify(jdbcTemplate).query(eq("SELECT pg_advisory_xact_lock(?)"), any(ResultSetExtractor.class),
+                eq(ItemLocks.advisoryKey(large)));
+        verifyNoMoreInteractions(jdbcTemplate);
+        assertNotEquals(ItemLocks.advisoryKey(7L), ItemLocks.advisoryKey(large));
+    }
+
+    @Test
+    void lockAcrossInstances_doesNothingWhenDisabled() {
+        locks.lockAcrossInstances(List.of(7L));
+
+        assertFalse(locks.locksAcrossInstances());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void lock_requiresTransaction() {
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThrows(IllegalStateException.class, () -> locks.lock(1L));
+    }
+
+    private CompletableFuture<Void> inOtherTransaction(Long itemId) {
+        return inOtherTransaction(List.of(itemId));
+    }
+
+    private CompletableFuture<Void> inOtherTransaction(List<Long> itemIds) {
+        return CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                locks.lockAll(itemIds);
+                complete();
+            } finally {
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.clearSynchronization();
+                }
+            }
+        }, executor);
+    }
+
+    private static void complete() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.dto.ItemRequestSuggestionDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -159,6 +160,18 @@ public class ItemRequestControllerTest {
                 .andExpect(jsonPath("$.error").value("Not found: Request not found"));
     }
 
+    @Test
+    void getSuggestions_success() throws Exception {
+        ItemRequestSuggestionDto suggestion = new ItemRequestSuggestionDto(5L, "Hockey stick", "CCM", 2L, 0.8);
+        given(service.getSuggestions(USER_ID, REQUEST_ID, 10)).willReturn(List.of(suggestion));
+
+        mockMvc.perform(get("/requests/{requestId}/suggestions", REQUEST_ID)
+                        .header("X-Sharer-User-Id", USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].itemId").value(5L))
+                .andExpect(jsonPath("$[0].score").value(0.8));
+    }
+
     private String toJson(Object obj) throws Exception {
         return mapper.writeValueAsString(obj);
     }
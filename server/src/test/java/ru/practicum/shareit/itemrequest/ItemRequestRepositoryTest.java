@@ -6,11 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRow;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -78,13 +77,13 @@ public class ItemRequestRepositoryTest {
                         LocalDateTime.now()
                 )
         );
-        List<ItemRequest> result = itemRequestRepository.findByRequesterIdOrderByCreatedDesc(requester.getId());
+        List<ItemRequestRow> result = itemRequestRepository.findRowsByRequesterId(requester.getId());
 
         assertEquals(3, result.size());
-        assertEquals(request3.getId(), result.getFirst().getId());
-        assertEquals(request2.getId(), result.get(1).getId());
-        assertEquals(request1.getId(), result.get(2).getId());
-        assertEquals(request1.getRequester(), requester);
+        assertEquals(request3.getId(), result.getFirst().id());
+        assertEquals(request2.getId(), result.get(1).id());
+        assertEquals(request1.getId(), result.get(2).id());
+        assertEquals("Second request", result.get(1).description());
     }
 
     @Test
@@ -106,11 +105,9 @@ public class ItemRequestRepositoryTest {
                 )
         );
 
-        PageRequest pageRequest = PageRequest.of(0, 1, Sort.by("created").descending());
-        Page<ItemRequest> page = itemRequestRepository.findByRequesterIdNot(requester.getId(), pageRequest);
+        List<ItemRequestRow> page = itemRequestRepository.findRowsByRequesterIdNot(requester.getId(),
+                PageRequest.of(0, 1));
 
-        assertEquals(1, page.getTotalElements());
-        assertEquals(1, page.getNumberOfElements());
-        assertEquals(request.getId(), page.getContent().getFirst().getId());
+        assertEquals(List.of(request.getId()), page.stream().map(ItemRequestRow::id).toList());
     }
 }
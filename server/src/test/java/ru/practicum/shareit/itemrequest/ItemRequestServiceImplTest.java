@@ -7,25 +7,32 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemRequestItemDto;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.RequestItemRow;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
 import ru.practicum.shareit.request.dto.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.RequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestSuggestion;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRow;
+import ru.practicum.shareit.request.repository.ItemRequestSuggestionRepository;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -48,6 +55,12 @@ public class ItemRequestServiceImplTest {
     @Mock
     private ItemRequestMapper mapper;
 
+    @Mock
+    private ItemRequestSuggestionRepository suggestionRepository;
+
+    @Mock
+    private RequestMatcher requestMatcher;
+
     @InjectMocks
     private ItemRequestServiceImpl service;
 
@@ -117,26 +130,20 @@ public class ItemRequestServiceImplTest {
     void getRequestsByUserId_success() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
-        ItemRequest request = ItemRequest.builder()
-                .id(requestId)
-                .description("Need a hockey stick")
-                .requester(user)
-                .created(LocalDateTime.now().minusDays(1))
-                .build();
-        when(itemRequestRepository.findByRequesterIdOrderByCreatedDesc(userId)).thenReturn(List.of(request));
+        ItemRequestRow request = new ItemRequestRow(requestId, "Need a hockey stick",
+                LocalDateTime.now().minusDays(1));
+        when(itemRequestRepository.findRowsByRequesterId(userId)).thenReturn(List.of(request));
 
         List<Long> reqIds = List.of(requestId);
-        Item item = new Item();
-        item.setItemRequest(request);
-        when(itemRepository.findAllByItemRequestIdIn(reqIds)).thenReturn(List.of(item));
+        when(itemRepository.findRequestItemRows(reqIds))
+                .thenReturn(List.of(new RequestItemRow(requestId, 5L, "Hockey stick", 2L)));
 
         ItemRequestWithItemsDto dto = ItemRequestWithItemsDto.builder()
                 .id(requestId)
-                .description(request.getDescription())
-                .created(request.getCreated())
-                .items(List.of())
+                .description(request.description())
+                .created(request.created())
+                .items(List.of(new ItemRequestItemDto(5L, "Hockey stick", 2L)))
                 .build();
-        when(mapper.toItemRequestWithItemsDto(request, List.of(item))).thenReturn(dto);
 
         List<ItemRequestWithItemsDto> result = service.getRequestsByUserId(userId);
 
@@ -150,7 +157,7 @@ public class ItemRequestServiceImplTest {
         assertThrows(NotFoundException.class,
                 () -> service.getRequestsByUserId(userId));
 
-        verify(itemRequestRepository, never()).findByRequesterIdOrderByCreatedDesc(anyLong());
+        verify(itemRequestRepository, never()).findRowsByRequesterId(anyLong());
     }
 
     @Test
@@ -195,29 +202,23 @@ public class ItemRequestServiceImplTest {
         int from = 5;
         int size = 3;
 
-        ItemRequest req1 = ItemRequest.builder().id(10L).build();
-        ItemRequest req2 = ItemRequest.builder().id(11L).build();
-        Page<ItemRequest> page = new PageImpl<>(List.of(req1, req2));
-        when(itemRequestRepository.findByRequesterIdNot(eq(userId), eq(PageRequest.of(from / size, size))))
-                .thenReturn(page);
+        ItemRequestRow req1 = new ItemRequestRow(10L, null, null);
+        ItemRequestRow req2 = new ItemRequestRow(11L, null, null);
+        when(itemRequestRepository.findRowsByRequesterIdNot(eq(userId), eq(PageRequest.of(from / size, size))))
+                .thenReturn(List.of(req1, req2));
 
         List<Long> reqIds = List.of(10L, 11L);
-        Item itemA = new Item();
-        itemA.setItemRequest(req1);
-        Item itemB = new Item();
-        itemB.setItemRequest(req2);
-        when(itemRepository.findAllByItemRequestIdIn(reqIds)).thenReturn(List.of(itemA, itemB));
+        RequestItemRow itemA = new RequestItemRow(10L, 5L, "Hockey stick", 2L);
+        when(itemRepository.findRequestItemRows(reqIds)).thenReturn(List.of(itemA));
 
-        ItemRequestWithItemsDto dto1 = ItemRequestWithItemsDto.builder().id(10L).items(emptyList()).build();
+        ItemRequestWithItemsDto dto1 = ItemRequestWithItemsDto.builder().id(10L)
+                .items(List.of(itemA.toItemDto())).build();
         ItemRequestWithItemsDto dto2 = ItemRequestWithItemsDto.builder().id(11L).items(emptyList()).build();
 
-        when(mapper.toItemRequestWithItemsDto(eq(req1), anyList())).thenReturn(dto1);
-        when(mapper.toItemRequestWithItemsDto(eq(req2), anyList())).thenReturn(dto2);
-
         List<ItemRequestWithItemsDto> result = service.getAll(userId, from, size);
 
         assertThat(result).containsExactly(dto1, dto2);
-        verify(itemRepository).findAllByItemRequestIdIn(reqIds);
+        verify(itemRepository).findRequestItemRows(reqIds);
     }
 
     @Test
@@ -227,13 +228,59 @@ public class ItemRequestServiceImplTest {
         int from = 5;
         int size = 3;
 
-        when(itemRequestRepository.findByRequesterIdNot(eq(userId), eq(PageRequest.of(from / size, size))))
-                .thenReturn(Page.empty());
+        when(itemRequestRepository.findRowsByRequesterIdNot(eq(userId), eq(PageRequest.of(from / size, size))))
+                .thenReturn(List.of());
 
         List<ItemRequestWithItemsDto> result = service.getAll(userId, from, size);
 
         assertThat(result).isEmpty();
-        verify(itemRepository, never()).findAllByItemRequestIdIn(anyList());
+        verify(itemRepository, never()).findRequestItemRows(anyList());
+    }
+
+    @Test
+    void createRequest_storesSuggestionsForExistingItems() {
+        User owner = new User(2L, "Elena", "elena@yandex.ru");
+        Item stick = new Item(5L, "Hockey stick", "CCM", owner, true, null, null, null);
+        Item ownStick = new Item(6L, "Hockey stick", "Bauer", user, true, null, null, null);
+        ItemRequest savedRequest = new ItemRequest(requestId, "Need a stick", user, LocalDateTime.now());
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(mapper.toItemRequest(createDto, user)).thenReturn(savedRequest);
+        when(itemRequestRepository.save(savedRequest)).thenReturn(savedRequest);
+        when(requestMatcher.itemsFor(savedRequest)).thenReturn(Map.of(5L, 0.8, 6L, 0.8));
+        when(itemRepository.findAllById(Set.of(5L, 6L))).thenReturn(List.of(stick, ownStick));
+
+        service.create(userId, createDto);
+
+        verify(requestMatcher).add(savedRequest);
+        verify(suggestionRepository).saveAll(argThat(suggestions -> {
+            List<ItemRequestSuggestion> list = (List<ItemRequestSuggestion>) suggestions;
+            return list.size() == 1 && list.getFirst().getItem().equals(stick) && list.getFirst().getScore() == 0.8;
+        }));
+    }
+
+    @Test
+    void suggestRequestsFor_skipsRequestsOfItemOwner() {
+        User owner = new User(2L, "Elena", "elena@yandex.ru");
+        Item stick = new Item(5L, "Hockey stick", "CCM", owner, true, null, null, null);
+        ItemRequest request = new ItemRequest(requestId, "Need a hockey stick", user, LocalDateTime.now());
+        ItemRequest ownRequest = new ItemRequest(11L, "Hockey stick wanted", owner, LocalDateTime.now());
+        when(requestMatcher.requestsFor(stick)).thenReturn(Map.of(requestId, 1.0, 11L, 1.0));
+        when(itemRequestRepository.findAllById(Set.of(requestId, 11L))).thenReturn(List.of(request, ownRequest));
+
+        service.suggestRequestsFor(stick);
+
+        verify(suggestionRepository).saveAll(argThat(suggestions -> {
+            List<ItemRequestSuggestion> list = (List<ItemRequestSuggestion>) suggestions;
+            return list.size() == 1 && list.getFirst().getRequest().equals(request);
+        }));
     }
 
+    @Test
+    void getSuggestions_throwForbidden() {
+        ItemRequest request = new ItemRequest(requestId, "Need a stick", user, LocalDateTime.now());
+        when(itemRequestRepository.findById(requestId)).thenReturn(Optional.of(request));
+
+        assertThrows(ForbiddenException.class, () -> service.getSuggestions(2L, requestId, 10));
+        verify(suggestionRepository, never()).findTopByRequestId(any(), any());
+    }
 }
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.itemrequest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.matching.RequestMatcher;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RequestMatcherTest {
+
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
+    @Mock
+    private ItemSearchIndex searchIndex;
+
+    private RequestMatcher matcher;
+    private User requester;
+
+    @BeforeEach
+    void setUp() {
+        matcher = new RequestMatcher(itemRequestRepository, searchIndex);
+        requester = new User(1L, "Ivan", "ivan@yandex.ru");
+        when(itemRequestRepository.findAll()).thenReturn(List.of(
+                request(1L, "Need a hockey stick for the weekend"),
+                request(2L, "Need a cordless drill"),
+                request(3L, "Need a tent")));
+        matcher.rebuild();
+    }
+
+    @Test
+    void requestsFor_scoresRequestsSharingDistinctiveTerms() {
+        Item drill = new Item(7L, "Drill", "Cordless drill with two batteries", requester, true, null, null, null);
+
+        Map<Long, Double> scores = matcher.requestsFor(drill);
+
+        assertEquals(Set.of(2L), scores.keySet());
+        assertTrue(scores.get(2L) > 0.7);
+    }
+
+    @Test
+    void requestsFor_ignoresCommonTermsAlone() {
+        Item need = new Item(8L, "Need", "Something you need", requester, true, null, null, null);
+
+        assertTrue(matcher.requestsFor(need).isEmpty());
+    }
+
+    @Test
+    void itemsFor_usesItemTermsFromSearchIndex() {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.findTerms(anyCollection())).thenReturn(Map.of(
+                7L, Set.of("hockey", "stick"),
+                8L, Set.of("weekend")));
+
+        Map<Long, Double> scores = matcher.itemsFor(request(4L, "Looking for a hockey stick"));
+
+        assertEquals(Set.of(7L), scores.keySet());
+    }
+
+    @Test
+    void itemsFor_skipsExistingItemsWhileIndexNotReady() {
+        when(searchIndex.isReady()).thenReturn(false);
+
+        assertTrue(matcher.itemsFor(request(4L, "Looking for a hockey stick")).isEmpty());
+        verify(searchIndex, never()).findTerms(anyCollection());
+    }
+
+    @Test
+    void add_skipsRolledBackRequest() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            matcher.add(request(4L, "Camping stove"));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Item stove = new Item(9L, "Stove", "Gas camping stove", requester, true, null, null, null);
+        assertTrue(matcher.requestsFor(stove).isEmpty());
+    }
+
+    @Test
+    void add_makesRequestMatchable() {
+        matcher.add(request(4L, "Camping stove"));
+
+        Item stove = new Item(9L, "Stove", "Gas camping stove", requester, true, null, null, null);
+        assertEquals(Set.of(4L), matcher.requestsFor(stove).keySet());
+    }
+
+    private ItemRequest request(Long id, String description) {
+        return new ItemRequest(id, description, requester, LocalDateTime.now());
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.comment.repository.CommentRow;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
@@ -93,21 +94,22 @@ public class CommentRepositoryTest {
     }
 
     @Test
-    void findAllByItemId() {
-        List<Comment> comments = commentRepository.findAllByItemId(item1.getId());
+    void findRowsByItemId() {
+        List<CommentRow> comments = commentRepository.findRowsByItemId(item1.getId());
 
         assertEquals(2, comments.size());
         assertTrue(comments.stream()
-                .allMatch(c -> c.getItem().getId().equals(item1.getId())));
+                .allMatch(c -> c.itemId().equals(item1.getId())));
+        assertEquals(author.getName(), comments.getFirst().authorName());
     }
 
     @Test
-    void findByItemIdIn() {
-        List<Comment> twoItems = commentRepository.findByItemIdIn(List.of(item1.getId(), item2.getId()));
+    void findRowsByItemIdIn() {
+        List<CommentRow> twoItems = commentRepository.findRowsByItemIdIn(List.of(item1.getId(), item2.getId()));
         assertEquals(3, twoItems.size());
 
-        List<Comment> onlyItem1 = commentRepository.findByItemIdIn(List.of(item1.getId()));
+        List<CommentRow> onlyItem1 = commentRepository.findRowsByItemIdIn(List.of(item1.getId()));
         assertEquals(2, onlyItem1.size());
-        assertEquals("Awesome", onlyItem1.getFirst().getText());
+        assertEquals("Awesome", onlyItem1.getFirst().text());
     }
 }
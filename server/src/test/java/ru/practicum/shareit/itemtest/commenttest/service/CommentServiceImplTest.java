@@ -11,8 +11,8 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.comment.dto.CommentCreateDto;
 import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
-import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.comment.repository.CommentRow;
 import ru.practicum.shareit.item.comment.service.CommentServiceImpl;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -100,21 +100,12 @@ public class CommentServiceImplTest {
 
     @Test
     void getCommentsForItem_success() {
-        Comment c1 = new Comment();
-        c1.setId(1L);
-        c1.setText("Awesome");
-        c1.setAuthor(author);
-        c1.setItem(item);
-        c1.setCreated(LocalDateTime.now().minusDays(2));
-
-        Comment c2 = new Comment();
-        c2.setId(2L);
-        c2.setText("Huge stick");
-        c2.setAuthor(author);
-        c2.setItem(item);
-        c2.setCreated(LocalDateTime.now().minusDays(5));
-
-        when(commentRepository.findAllByItemId(item.getId()))
+        CommentRow c1 = new CommentRow(item.getId(), 1L, "Awesome", author.getName(),
+                LocalDateTime.now().minusDays(2));
+        CommentRow c2 = new CommentRow(item.getId(), 2L, "Huge stick", author.getName(),
+                LocalDateTime.now().minusDays(5));
+
+        when(commentRepository.findRowsByItemId(item.getId()))
                 .thenReturn(List.of(c1, c2));
 
         List<CommentResponseDto> result = service.getCommentsForItem(item.getId());
@@ -126,7 +117,7 @@ public class CommentServiceImplTest {
 
     @Test
     void getCommentsForItem_EmptyTextShouldReturnEmptyList() {
-        when(commentRepository.findAllByItemId(item.getId()))
+        when(commentRepository.findRowsByItemId(item.getId()))
                 .thenReturn(List.of());
 
         List<CommentResponseDto> result = service.getCommentsForItem(item.getId());
@@ -17,7 +17,10 @@ import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
 import ru.practicum.shareit.item.comment.service.CommentService;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.search.ItemSearchPage;
+import ru.practicum.shareit.item.search.ItemSearchQuery;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.time.LocalDateTime;
@@ -26,6 +29,8 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -64,7 +69,6 @@ public class ItemControllerTest {
                 true,
                 null,
                 null,
-                List.of(),
                 List.of()
         );
 
@@ -128,7 +132,6 @@ public class ItemControllerTest {
                 true,
                 null,
                 null,
-                List.of(),
                 List.of()
         );
 
@@ -170,11 +173,10 @@ public class ItemControllerTest {
                 true,
                 null,
                 null,
-                List.of(),
                 List.of()
         );
 
-        given(itemService.getItemById(1L)).willReturn(output);
+        given(itemService.getItemById(anyLong(), eq(1L))).willReturn(output);
 
         mockMvc.perform(get("/items/1")
                         .header(USER_HEADER, 2L))
@@ -186,7 +188,7 @@ public class ItemControllerTest {
 
     @Test
     void getItemById_throwNotFound() throws Exception {
-        given(itemService.getItemById(1L)).willThrow(new NotFoundException("Not found"));
+        given(itemService.getItemById(anyLong(), eq(1L))).willThrow(new NotFoundException("Not found"));
 
         mockMvc.perform(get("/items/1")
                         .header(USER_HEADER, 1L))
@@ -205,7 +207,6 @@ public class ItemControllerTest {
                         true,
                         null,
                         null,
-                        List.of(),
                         List.of()
                 ),
                 new ItemResponseDto(
@@ -216,7 +217,6 @@ public class ItemControllerTest {
                         true,
                         null,
                         null,
-                        List.of(),
                         List.of()
                 )
         );
@@ -228,6 +228,21 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.length()").value(2));
     }
 
+    @Test
+    void getItemByOwnerId_summaryView() throws Exception {
+        given(itemService.getItemSummariesByOwnerId(1L))
+                .willReturn(List.of(new ItemSummaryDto(1L, "A", "a", 1L, true, 5L, 7L, 3L)));
+
+        mockMvc.perform(get("/items")
+                        .header(USER_HEADER, 1L)
+                        .param("view", "SUMMARY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].commentCount").value(3))
+                .andExpect(jsonPath("$[0].lastBooking").value(5))
+                .andExpect(jsonPath("$[0].comments").doesNotExist());
+        verify(itemService, never()).getItemsByOwnerId(anyLong());
+    }
+
     @Test
     void searchItem_success() throws Exception {
         List<ItemResponseDto> list = List.of(
@@ -238,30 +253,77 @@ public class ItemControllerTest {
                         true,
                         null,
                         null,
-                        List.of(),
                         List.of()
                 )
         );
-        given(itemService.searchItems("Hockey stick")).willReturn(list);
+        given(itemService.searchItems(new ItemSearchQuery("Hockey stick", 5, true,
+                LocalDateTime.of(2030, 1, 4, 10, 0), LocalDateTime.of(2030, 1, 6, 10, 0), false, "Ym9va21hcms")))
+                .willReturn(new ItemSearchPage(list, "bmV4dA"));
 
         mockMvc.perform(get("/items/search")
                         .header(USER_HEADER, 2L)
-                        .param("text", "Hockey stick"))
+                        .param("text", "Hockey stick")
+                        .param("size", "5")
+                        .param("after", "Ym9va21hcms")
+                        .param("fuzzy", "true")
+                        .param("start", "2030-01-04T10:00:00")
+                        .param("end", "2030-01-06T10:00:00"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "bmV4dA"))
                 .andExpect(jsonPath("$[0].name").value("Hockey stick"));
     }
 
     @Test
     void searchItemsEmpty_success() throws Exception {
-        given(itemService.searchItems("")).willReturn(List.of());
+        given(itemService.searchItems(ItemSearchQuery.of(""))).willReturn(new ItemSearchPage(List.of(), null));
 
         mockMvc.perform(get("/items/search")
                         .header(USER_HEADER, 1L)
                         .param("text", ""))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$.length()").value(0));
     }
 
+    @Test
+    void searchItems_throwBadRequest_nonPositiveSizeOrLimit() throws Exception {
+        mockMvc.perform(get("/items/search")
+                        .header(USER_HEADER, 1L)
+                        .param("text", "stick")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/items/search")
+                        .header(USER_HEADER, 1L)
+                        .param("text", "stick")
+                        .param("limit", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).searchItems(any());
+    }
+
+    @Test
+    void suggest_throwBadRequest_zeroLimit() throws Exception {
+        mockMvc.perform(get("/items/suggest")
+                        .header(USER_HEADER, 1L)
+                        .param("prefix", "st")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).suggest(any(), anyInt());
+    }
+
+    @Test
+    void suggest_success() throws Exception {
+        given(itemService.suggest("st", 10)).willReturn(List.of("stick", "stand"));
+
+        mockMvc.perform(get("/items/suggest")
+                        .header(USER_HEADER, 1L)
+                        .param("prefix", "st"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("stick"))
+                .andExpect(jsonPath("$[1]").value("stand"));
+    }
+
     @Test
     void createCommentForItem_success() throws Exception {
         CommentCreateDto create = new CommentCreateDto("Great stick!");
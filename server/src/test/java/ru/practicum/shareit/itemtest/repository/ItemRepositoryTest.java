@@ -5,8 +5,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemRow;
+import ru.practicum.shareit.item.repository.RequestItemRow;
+import ru.practicum.shareit.item.repository.ScoredItemId;
+import ru.practicum.shareit.item.search.ItemAvailability;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -14,6 +27,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,6 +43,12 @@ public class ItemRepositoryTest {
     @Autowired
     private ItemRequestRepository itemRequestRepository;
 
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
     private User owner;
     private Item item1;
     private Item item2;
@@ -60,17 +80,32 @@ public class ItemRepositoryTest {
 
     @AfterEach
     void clear() {
+        bookingRepository.deleteAll();
+        commentRepository.deleteAll();
         itemRepository.deleteAll();
         itemRequestRepository.deleteAll();
         userRepository.deleteAll();
     }
 
     @Test
-    void findByOwnerId() {
-        List<Item> items = itemRepository.findByOwnerId(owner.getId());
-        assertEquals(2, items.size());
-        assertTrue(items.contains(item1));
-        assertTrue(items.contains(item2));
+    void findRowsByOwnerId() {
+        List<ItemRow> items = itemRepository.findRowsByOwnerId(owner.getId());
+        assertEquals(List.of(item1.getId(), item2.getId()), items.stream().map(ItemRow::id).toList());
+        assertEquals(owner.getId(), items.getFirst().ownerId());
+    }
+
+    @Test
+    void findSummariesByOwnerId_countsComments() {
+        commentRepository.save(new Comment(null, "Great", item2, requester, LocalDateTime.now()));
+        commentRepository.save(new Comment(null, "Sharp", item2, requester, LocalDateTime.now()));
+
+        List<ItemSummaryDto> summaries = itemRepository.findSummariesByOwnerId(owner.getId());
+
+        assertEquals(List.of(item1.getId(), item2.getId()), summaries.stream().map(ItemSummaryDto::getId).toList());
+        assertEquals(0L, summaries.getFirst().getCommentCount());
+        assertEquals(2L, summaries.getLast().getCommentCount());
+        assertEquals(owner.getId(), summaries.getLast().getOwnerId());
+        assertTrue(itemRepository.findSummariesByOwnerId(requester.getId()).isEmpty());
     }
 
     @Test
@@ -88,10 +123,79 @@ public class ItemRepositoryTest {
                 null);
         itemRepository.save(item3);
 
-        List<Item> items = itemRepository.searchItems("Hockey stick");
-        assertEquals(2, items.size());
-        assertTrue(items.contains(item1));
-        assertFalse(items.contains(item3));
+        List<Long> ids = ids(itemRepository.searchItems("Hockey stick", Double.MAX_VALUE, 0L, Limit.of(10)));
+        assertEquals(2, ids.size());
+        assertTrue(ids.contains(item1.getId()));
+        assertFalse(ids.contains(item3.getId()));
+    }
+
+    @Test
+    void searchItems_nameMatchesFirstAndLimited() {
+        Item describedStick = itemRepository.save(new Item(null,
+                "Tape",
+                "Tape for a hockey stick blade",
+                owner,
+                true,
+                null,
+                null,
+                null));
+
+        List<Long> ids = ids(itemRepository.searchItems("stick", Double.MAX_VALUE, 0L, Limit.of(10)));
+        assertEquals(List.of(item1.getId(), item2.getId(), describedStick.getId()), ids);
+
+        List<ScoredItemId> firstPage = itemRepository.searchItems("stick", Double.MAX_VALUE, 0L, Limit.of(1));
+        assertEquals(List.of(item1.getId()), ids(firstPage));
+
+        ScoredItemId last = firstPage.getLast();
+        List<ScoredItemId> secondPage = itemRepository.searchItems("stick", last.getScore(), last.getId(),
+                Limit.of(10));
+        assertEquals(List.of(item2.getId(), describedStick.getId()), ids(secondPage));
+    }
+
+    @Test
+    void searchItems_indexFindsWhatDatabaseFinds() {
+        itemRepository.save(new Item(null, "Cordless drill", "Drill with two batteries", owner, true,
+                null, null, null));
+        itemRepository.save(new Item(null, "Ski stand", "Stand for skis and sticks", owner, true,
+                null, null, null));
+        itemRepository.save(new Item(null, "Old stick", "Broken", owner, false, null, null, null));
+        ItemSearchProperties properties = new ItemSearchProperties();
+        properties.getIndex().setEnabled(true);
+        ItemAvailability availability = new ItemAvailability(itemRepository);
+        availability.rebuild();
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository, properties, availability);
+        index.rebuild();
+
+        for (String text : List.of("stick", "STICK", "tick", "drill", "batter", "jetspeed", "ft5", "p9", "ski", "k")) {
+            assertEquals(Set.copyOf(ids(itemRepository.searchItems(text, Double.MAX_VALUE, 0L, Limit.of(100)))),
+                    index.matchingIds(text, false), text);
+        }
+        for (String text : List.of("Hockey stick", "cordless drill", "flex - 65")) {
+            Set<Long> database = Set.copyOf(ids(itemRepository.searchItems(text, Double.MAX_VALUE, 0L,
+                    Limit.of(100))));
+            assertFalse(database.isEmpty(), text);
+            assertTrue(index.matchingIds(text, false).containsAll(database), text);
+        }
+    }
+
+    @Test
+    void searchItemsFreeBetween_excludesOverlappingBookings() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 4, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 6, 10, 0);
+        bookingRepository.save(new Booking(null, start.minusDays(1), start.plusHours(1), item1, requester,
+                BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, end, end.plusDays(1), item2, requester,
+                BookingStatus.APPROVED));
+
+        List<ScoredItemId> approvedOnly = itemRepository.searchItemsFreeBetween("stick", start, end,
+                List.of(BookingStatus.APPROVED), Double.MAX_VALUE, 0L, Limit.of(10));
+        assertEquals(List.of(item2.getId()), ids(approvedOnly));
+
+        bookingRepository.save(new Booking(null, start.plusHours(2), end.minusHours(2), item2, requester,
+                BookingStatus.WAITING));
+        List<ScoredItemId> withWaiting = itemRepository.searchItemsFreeBetween("stick", start, end,
+                List.of(BookingStatus.APPROVED, BookingStatus.WAITING), Double.MAX_VALUE, 0L, Limit.of(10));
+        assertTrue(withWaiting.isEmpty());
     }
 
     @Test
@@ -130,16 +234,20 @@ public class ItemRepositoryTest {
         itemRepository.save(item1);
         itemRepository.save(item2);
 
-        List<Item> all = itemRepository.findAllByItemRequestIdIn(List.of(request1.getId(), request2.getId()));
+        List<RequestItemRow> all = itemRepository.findRequestItemRows(List.of(request1.getId(), request2.getId()));
         assertEquals(2, all.size());
-        assertTrue(all.contains(item1));
-        assertTrue(all.contains(item2));
+        assertTrue(all.stream().map(RequestItemRow::id).toList().containsAll(List.of(item1.getId(), item2.getId())));
 
-        List<Item> single = itemRepository.findAllByItemRequestIdIn(List.of(request1.getId()));
+        List<RequestItemRow> single = itemRepository.findRequestItemRows(List.of(request1.getId()));
         assertEquals(1, single.size());
-        assertTrue(single.contains(item1));
+        assertEquals(item1.getId(), single.getFirst().id());
+        assertEquals(request1.getId(), single.getFirst().requestId());
 
-        List<Item> empty = itemRepository.findAllByItemRequestIdIn(List.of(666L));
+        List<RequestItemRow> empty = itemRepository.findRequestItemRows(List.of(666L));
         assertTrue(empty.isEmpty());
     }
+
+    private static List<Long> ids(List<ScoredItemId> rows) {
+        return rows.stream().map(ScoredItemId::getId).toList();
+    }
 }
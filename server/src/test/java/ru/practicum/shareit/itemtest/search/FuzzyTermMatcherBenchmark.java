@@ -0,0 +1,71 @@
+package ru.practicum.shareit.itemtest.search;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.FuzzyTermMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Compares fuzzy lookups with exact prefix lookups on a 50k term vocabulary. Not part of the
+ * regular test run; start it with {@code mvn -pl server test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class FuzzyTermMatcherBenchmark {
+
+    @Test
+    void match_againstExactLookup() {
+        Random random = new Random(42);
+        FuzzyTermMatcher matcher = new FuzzyTermMatcher();
+        NavigableSet<String> vocabulary = new TreeSet<>();
+        while (vocabulary.size() < 50_000) {
+            vocabulary.add(randomTerm(random));
+        }
+        vocabulary.forEach(matcher::add);
+        List<String> queries = new ArrayList<>();
+        for (String term : vocabulary) {
+            if (queries.size() == 200) {
+                break;
+            }
+            if (random.nextInt(100) == 0) {
+                queries.add(term.substring(0, term.length() - 1) + 'q');
+            }
+        }
+
+        long exactStart = System.nanoTime();
+        int exactHits = 0;
+        for (String query : queries) {
+            exactHits += vocabulary.subSet(query, true, query + Character.MAX_VALUE, true).size();
+        }
+        long exactNanos = System.nanoTime() - exactStart;
+
+        long fuzzyStart = System.nanoTime();
+        int fuzzyHits = 0;
+        for (String query : queries) {
+            fuzzyHits += matcher.match(query, FuzzyTermMatcher.maxEditsFor(query.length(), 2)).size();
+        }
+        long fuzzyNanos = System.nanoTime() - fuzzyStart;
+
+        long candidates = 0;
+        for (String query : queries) {
+            candidates += matcher.candidates(query, FuzzyTermMatcher.maxEditsFor(query.length(), 2)).size();
+        }
+
+        System.out.printf("exact: %d hits, %d us/query; fuzzy: %d hits, %d us/query, %d candidates%n",
+                exactHits, exactNanos / queries.size() / 1000,
+                fuzzyHits, fuzzyNanos / queries.size() / 1000, candidates);
+    }
+
+    private String randomTerm(Random random) {
+        int length = 5 + random.nextInt(6);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(16)));
+        }
+        return builder.toString();
+    }
+}
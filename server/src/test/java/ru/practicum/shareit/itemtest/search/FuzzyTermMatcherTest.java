@@ -0,0 +1,61 @@
+package ru.practicum.shareit.itemtest.search;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.FuzzyTermMatcher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FuzzyTermMatcherTest {
+
+    @Test
+    void match_findsTermsWithinEditDistance() {
+        FuzzyTermMatcher matcher = new FuzzyTermMatcher();
+        List.of("hockey", "stick", "sticker", "drill", "grill").forEach(matcher::add);
+
+        assertEquals(Map.of("hockey", 1), matcher.match("hokey", 1));
+        assertEquals(Map.of("drill", 0, "grill", 1), matcher.match("drill", 1));
+        assertEquals(Map.of("stick", 0, "sticker", 2), matcher.match("stick", 2));
+        assertTrue(matcher.match("banana", 2).isEmpty());
+
+        matcher.remove("grill");
+        assertEquals(Map.of("drill", 0), matcher.match("drill", 1));
+    }
+
+    @Test
+    void maxEditsFor_shortTokensTolerateFewerEdits() {
+        assertEquals(0, FuzzyTermMatcher.maxEditsFor(2, 2));
+        assertEquals(1, FuzzyTermMatcher.maxEditsFor(5, 2));
+        assertEquals(2, FuzzyTermMatcher.maxEditsFor(8, 2));
+    }
+
+    @Test
+    void candidates_filterVocabularyBeforeEditDistance() {
+        FuzzyTermMatcher matcher = new FuzzyTermMatcher();
+        List.of("hockey", "hockeys", "stick", "sticker", "drill", "grill", "thrill", "banana")
+                .forEach(matcher::add);
+
+        assertEquals(Set.of("hockey"), matcher.candidates("hokey", 1));
+        assertEquals(Set.of("drill", "grill", "thrill"), matcher.candidates("drill", 1));
+        assertEquals(Map.of("drill", 0, "grill", 1), matcher.match("drill", 1));
+        assertTrue(matcher.candidates("stik", 1).contains("stick"));
+        assertTrue(matcher.candidates("xyz", 2).isEmpty());
+    }
+
+    @Test
+    void containing_findsTermsWithTokenAnywhere() {
+        FuzzyTermMatcher matcher = new FuzzyTermMatcher();
+        List.of("hockey", "stick", "sticker", "jetspeed", "p90", "drill").forEach(matcher::add);
+
+        assertEquals(Set.of("stick", "sticker"), matcher.containing("tick"));
+        assertEquals(Set.of("jetspeed"), matcher.containing("speed"));
+        assertEquals(Set.of("hockey", "stick", "sticker"), matcher.containing("k"));
+        assertEquals(Set.of("p90"), matcher.containing("90"));
+        assertEquals(Set.of("drill"), matcher.containing("drill"));
+        assertTrue(matcher.containing("kcits").isEmpty());
+        assertTrue(matcher.containing("ll").contains("drill"));
+    }
+}
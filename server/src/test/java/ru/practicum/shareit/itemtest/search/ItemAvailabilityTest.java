@@ -0,0 +1,84 @@
+package ru.practicum.shareit.itemtest.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemAvailability;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemAvailabilityTest {
+
+    @Mock
+    ItemRepository itemRepository;
+
+    private ItemAvailability availability;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        availability = new ItemAvailability(itemRepository);
+        owner = new User(1L, "Ivan", "ivan@yandex.ru");
+        when(itemRepository.findAvailableIds()).thenReturn(List.of(1L, 3L, 4L));
+        availability.rebuild();
+    }
+
+    @Test
+    void rebuild_loadsAvailableIds() {
+        assertTrue(availability.isReady());
+        assertEquals(3, availability.count());
+        assertTrue(availability.isAvailable(1L));
+        assertFalse(availability.isAvailable(2L));
+        assertFalse(availability.isAvailable(-1L));
+    }
+
+    @Test
+    void rebuild_keepsUpdatesCommittedWhileLoading() {
+        when(itemRepository.findAvailableIds()).thenAnswer(inv -> {
+            availability.update(new Item(5L, "Drill", "Cordless drill", owner, true, null, null, null));
+            availability.update(new Item(3L, "Saw", "Electric saw", owner, false, null, null, null));
+            return List.of(1L, 3L, 4L);
+        });
+
+        availability.rebuild();
+
+        assertTrue(availability.isAvailable(5L));
+        assertFalse(availability.isAvailable(3L));
+        assertEquals(3, availability.count());
+    }
+
+    @Test
+    void update_followsAvailabilityToggles() {
+        availability.update(new Item(2L, "Drill", "Cordless drill", owner, true, null, null, null));
+        availability.update(new Item(3L, "Saw", "Electric saw", owner, false, null, null, null));
+
+        List<Long> candidates = new ArrayList<>(List.of(1L, 2L, 3L, 5L));
+        availability.retainAvailable(candidates);
+
+        assertEquals(List.of(1L, 2L), candidates);
+    }
+
+    @Test
+    void update_acceptsIdsBeyondIntRange() {
+        long id = Integer.MAX_VALUE + 10L;
+        availability.update(new Item(id, "Drill", "Cordless drill", owner, true, null, null, null));
+
+        assertTrue(availability.isAvailable(id));
+        assertFalse(availability.isAvailable(id & Integer.MAX_VALUE));
+        assertEquals(4, availability.count());
+
+        availability.update(new Item(id, "Drill", "Cordless drill", owner, false, null, null, null));
+        assertFalse(availability.isAvailable(id));
+        assertEquals(3, availability.count());
+    }
+}
@@ -0,0 +1,194 @@
+package ru.practicum.shareit.itemtest.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemAvailability;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
+import ru.practicum.shareit.item.search.SearchCursor;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+
+    @Mock
+    ItemRepository itemRepository;
+
+    private ItemSearchProperties properties;
+    private ItemAvailability availability;
+    private ItemSearchIndex index;
+    private User owner;
+    private Item stick;
+    private Item drill;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ItemSearchProperties();
+        properties.getIndex().setEnabled(true);
+        availability = new ItemAvailability(itemRepository);
+        index = new ItemSearchIndex(itemRepository, properties, availability);
+        owner = new User(1L, "Ivan", "ivan@yandex.ru");
+        stick = new Item(1L, "Hockey stick", "CCM Jetspeed, flex 65", owner, true, null, null, null);
+        drill = new Item(2L, "Drill", "Cordless drill with two batteries", owner, true, null, null, null);
+    }
+
+    @Test
+    void rebuild_indexesAllItems() {
+        rebuildWith(stick, drill);
+
+        assertTrue(index.isReady());
+        assertEquals(2, index.documentCount());
+        assertEquals(List.of(1L), ids("hockey"));
+        assertEquals(List.of(2L), ids("DRILL"));
+        assertEquals(List.of(2L), ids("cordless batt"));
+        assertTrue(ids("cordless stick").isEmpty());
+    }
+
+    @Test
+    void index_replacesPreviousTermsAndAvailability() {
+        rebuildWith(stick, drill);
+
+        stick.setName("Golf club");
+        index.index(stick);
+        assertTrue(ids("hockey").isEmpty());
+        assertEquals(List.of(1L), ids("golf"));
+
+        drill.setAvailable(false);
+        availability.update(drill);
+        index.index(drill);
+        assertTrue(ids("drill").isEmpty());
+    }
+
+    @Test
+    void isReady_waitsForAvailabilityBitmap() {
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(stick));
+        index.rebuild();
+
+        assertFalse(index.isReady());
+    }
+
+    @Test
+    void index_exceedingBudgetDisablesIndex() {
+        properties.getIndex().setMemoryBudget(DataSize.ofBytes(3000));
+        rebuildWith(stick);
+        assertTrue(index.isReady());
+
+        index.index(drill);
+
+        assertFalse(index.isReady());
+        assertEquals(0, index.documentCount());
+    }
+
+    @Test
+    void verify_detectsDrift() {
+        rebuildWith(stick);
+        assertTrue(index.verify().isConsistent());
+
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(stick, drill));
+        ItemSearchIndex.ConsistencyReport report = index.verify();
+
+        assertFalse(report.isConsistent());
+        assertEquals(1, report.indexed());
+        assertEquals(2, report.stored());
+        assertEquals(1, report.mismatched());
+    }
+
+    @Test
+    void verifyInBackground_keepsLastReport() {
+        assertTrue(index.lastVerification().isEmpty());
+        rebuildWith(stick);
+
+        index.verifyInBackground();
+
+        assertTrue(index.lastVerification().orElseThrow().isConsistent());
+    }
+
+    @Test
+    void search_ranksNameMatchesFirstAndCutsToLimit() {
+        Item tape = new Item(3L, "Tape", "Tape for a hockey stick blade", owner, true, null, null, null);
+        Item oldStick = new Item(4L, "Old hockey stick", "Hockey stick with a broken hockey blade",
+                owner, true, null, null, null);
+        rebuildWith(stick, drill, tape, oldStick);
+
+        List<ItemSearchIndex.SearchHit> hits = index.search("hockey", 10, false);
+
+        assertEquals(3, hits.size());
+        assertEquals(3L, hits.getLast().itemId());
+        assertTrue(hits.get(0).score() >= hits.get(1).score());
+        assertEquals(List.of(hits.getFirst()), index.search("hockey", 1, false));
+        assertEquals(hits.subList(1, 3), index.search("hockey", 10, false, Set.of(), hits.getFirst()));
+    }
+
+    @Test
+    void search_skipsExcludedItemsBeforeLimit() {
+        Item tape = new Item(3L, "Tape", "Tape for a hockey stick blade", owner, true, null, null, null);
+        rebuildWith(stick, drill, tape);
+
+        List<ItemSearchIndex.SearchHit> hits = index.search("hockey", 1, false, Set.of(1L), SearchCursor.FIRST);
+
+        assertEquals(List.of(3L), hits.stream().map(ItemSearchIndex.SearchHit::itemId).toList());
+    }
+
+    @Test
+    void matchingIds_returnsEveryAvailableMatch() {
+        Item tape = new Item(3L, "Tape", "Tape for a hockey stick blade", owner, false, null, null, null);
+        rebuildWith(stick, drill, tape);
+
+        assertEquals(Set.of(1L), index.matchingIds("hockey", false));
+        assertEquals(Set.of(1L), index.matchingIds("hokey", true));
+        assertTrue(index.matchingIds("", false).isEmpty());
+    }
+
+    @Test
+    void search_fuzzyToleratesTyposAndRanksExactFirst() {
+        Item grill = new Item(3L, "Grill", "Charcoal grill", owner, true, null, null, null);
+        rebuildWith(stick, drill, grill);
+
+        assertTrue(ids("hokey").isEmpty());
+        assertEquals(List.of(1L), fuzzyIds("hokey"));
+        assertEquals(List.of(1L), fuzzyIds("stik"));
+        assertEquals(List.of(2L), fuzzyIds("cordles dril"));
+        assertEquals(List.of(2L, 3L), fuzzyIds("drill"));
+        assertTrue(fuzzyIds("xyz").isEmpty());
+    }
+
+    private List<Long> fuzzyIds(String text) {
+        return index.search(text, 10, true)
+                .stream()
+                .map(ItemSearchIndex.SearchHit::itemId)
+                .toList();
+    }
+
+    private List<Long> ids(String text) {
+        return index.search(text, 10, false)
+                .stream()
+                .map(ItemSearchIndex.SearchHit::itemId)
+                .toList();
+    }
+
+    private void rebuildWith(Item... items) {
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(items));
+        when(itemRepository.findAvailableIds())
+                .thenReturn(Arrays.stream(items).filter(Item::getAvailable).map(Item::getId).toList());
+        availability.rebuild();
+        index.rebuild();
+    }
+}
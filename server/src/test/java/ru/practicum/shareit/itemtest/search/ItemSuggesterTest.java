@@ -0,0 +1,73 @@
+package ru.practicum.shareit.itemtest.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
+import ru.practicum.shareit.item.search.ItemSuggester;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSuggesterTest {
+
+    @Mock
+    ItemRepository itemRepository;
+
+    private ItemSuggester suggester;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new ItemSuggester(itemRepository, new ItemSearchProperties());
+        owner = new User(1L, "Ivan", "ivan@yandex.ru");
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(
+                        item(1L, "Hockey stick", true),
+                        item(2L, "Selfie stick", true),
+                        item(3L, "Stick blade tape", true),
+                        item(4L, "Stool", true),
+                        item(5L, "Steamer", false)));
+        suggester.rebuild();
+    }
+
+    @Test
+    void suggest_returnsMostFrequentCompletionsFirst() {
+        List<String> suggestions = suggester.suggest("St", 10);
+
+        assertEquals("stick", suggestions.getFirst());
+        assertEquals(2, suggestions.size());
+        assertTrue(suggestions.contains("stool"));
+        assertEquals(List.of("stick"), suggester.suggest("st", 1));
+        assertTrue(suggester.suggest("x", 10).isEmpty());
+        assertTrue(suggester.suggest(" ", 10).isEmpty());
+    }
+
+    @Test
+    void index_followsAvailabilityToggles() {
+        suggester.index(item(5L, "Steamer", true));
+        assertTrue(suggester.suggest("ste", 5).contains("steamer"));
+
+        suggester.index(item(4L, "Stool", false));
+        assertFalse(suggester.suggest("st", 5).contains("stool"));
+
+        suggester.index(item(1L, "Hockey puck", true));
+        suggester.index(item(2L, "Selfie pole", true));
+        assertEquals(List.of("puck"), suggester.suggest("pu", 5));
+        assertEquals(List.of("stick"), suggester.suggest("stick", 5));
+    }
+
+    private Item item(Long id, String name, boolean available) {
+        return new Item(id, name, "Description", owner, available, null, null, null);
+    }
+}
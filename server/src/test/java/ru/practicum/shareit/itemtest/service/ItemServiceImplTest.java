@@ -5,22 +5,41 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.AdjacentBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemRow;
+import ru.practicum.shareit.item.repository.ScoredItemId;
+import ru.practicum.shareit.item.search.ItemAvailability;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchPage;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
+import ru.practicum.shareit.item.search.ItemSearchQuery;
+import ru.practicum.shareit.item.search.ItemSuggester;
+import ru.practicum.shareit.item.search.SearchCursor;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.subscription.service.SubscriptionService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -41,6 +60,24 @@ public class ItemServiceImplTest {
     @Mock
     CommentRepository commentRepository;
 
+    @Mock
+    ItemAvailability availability;
+
+    @Mock
+    ItemSearchIndex searchIndex;
+
+    @Mock
+    ItemSuggester suggester;
+
+    @Mock
+    SubscriptionService subscriptionService;
+
+    @Mock
+    ItemRequestService itemRequestService;
+
+    @Spy
+    ItemSearchProperties searchProperties = new ItemSearchProperties();
+
     @InjectMocks
     ItemServiceImpl service;
 
@@ -79,6 +116,8 @@ public class ItemServiceImplTest {
         assertEquals("Saw", result.getName());
         assertTrue(result.getAvailable());
         verify(itemRepository).save(argThat(i -> i.getOwner().equals(owner)));
+        verify(subscriptionService).notifyMatches(argThat(i -> i.getId().equals(2L)));
+        verify(itemRequestService).suggestRequestsFor(argThat(i -> i.getId().equals(2L)));
     }
 
     @Test
@@ -139,13 +178,30 @@ public class ItemServiceImplTest {
     void getItemById_success() {
         when(itemRepository.findById(item.getId()))
                 .thenReturn(Optional.of(item));
-        when(commentRepository.findAllByItemId(item.getId()))
+        when(commentRepository.findRowsByItemId(item.getId()))
                 .thenReturn(List.of());
 
-        ItemResponseDto result = service.getItemById(item.getId());
+        ItemResponseDto result = service.getItemById(99L, item.getId());
 
         assertEquals(item.getId(), result.getId());
         assertTrue(result.getComments().isEmpty());
+        assertNull(result.getLastBooking());
+        verify(bookingRepository, never()).findAdjacentApproved(any(), any());
+    }
+
+    @Test
+    void getItemById_ownerSeesLastAndNextBooking() {
+        when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+        when(commentRepository.findRowsByItemId(item.getId()))
+                .thenReturn(List.of());
+        when(bookingRepository.findAdjacentApproved(eq(Set.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(List.of(adjacent(item.getId(), 10L, true), adjacent(item.getId(), 11L, false)));
+
+        ItemResponseDto result = service.getItemById(owner.getId(), item.getId());
+
+        assertEquals(10L, result.getLastBooking());
+        assertEquals(11L, result.getNextBooking());
     }
 
     @Test
@@ -155,7 +211,7 @@ public class ItemServiceImplTest {
 
         assertThrows(
                 NotFoundException.class,
-                () -> service.getItemById(99L)
+                () -> service.getItemById(1L, 99L)
         );
     }
 
@@ -163,13 +219,38 @@ public class ItemServiceImplTest {
     void getItemsByOwnerId_success() {
         when(userRepository.findById(owner.getId()))
                 .thenReturn(Optional.of(owner));
-        when(itemRepository.findByOwnerId(owner.getId()))
-                .thenReturn(List.of(item));
+        when(itemRepository.findRowsByOwnerId(owner.getId()))
+                .thenReturn(List.of(new ItemRow(item.getId(), item.getName(), item.getDescription(),
+                        owner.getId(), true)));
+
+        when(bookingRepository.findAdjacentApproved(eq(Set.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(List.of(adjacent(item.getId(), 11L, false)));
 
         List<ItemResponseDto> result = service.getItemsByOwnerId(owner.getId());
 
         assertEquals(1, result.size());
         assertEquals(item.getName(), result.getFirst().getName());
+        assertNull(result.getFirst().getLastBooking());
+        assertEquals(11L, result.getFirst().getNextBooking());
+    }
+
+    @Test
+    void getItemSummariesByOwnerId_success() {
+        ItemSummaryDto summary = new ItemSummaryDto(item.getId(), item.getName(), item.getDescription(),
+                owner.getId(), true, 2L);
+        when(userRepository.findById(owner.getId()))
+                .thenReturn(Optional.of(owner));
+        when(itemRepository.findSummariesByOwnerId(owner.getId()))
+                .thenReturn(List.of(summary));
+        when(bookingRepository.findAdjacentApproved(eq(Set.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(List.of(adjacent(item.getId(), 10L, true)));
+
+        List<ItemSummaryDto> result = service.getItemSummariesByOwnerId(owner.getId());
+
+        assertEquals(List.of(summary), result);
+        assertEquals(10L, summary.getLastBooking());
+        assertEquals(2L, summary.getCommentCount());
+        verify(commentRepository, never()).findRowsByItemIdIn(any());
     }
 
     @Test
@@ -184,12 +265,174 @@ public class ItemServiceImplTest {
 
     @Test
     void searchItems_success() {
-        when(itemRepository.searchItems("stick"))
+        when(itemRepository.searchItems(eq("stick"), eq(Double.MAX_VALUE), eq(0L), any(Limit.class)))
+                .thenReturn(List.of(scored(item.getId(), 1.0)));
+        when(itemRepository.findAllById(List.of(item.getId()))).thenReturn(List.of(item));
+
+        ItemSearchPage result = service.searchItems(ItemSearchQuery.of("stick"));
+
+        assertEquals(1, result.items().size());
+        assertEquals("Hockey stick", result.items().getFirst().getName());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void searchItems_returnsCursorOfLastHitWhenMorePagesExist() {
+        Item other = new Item(2L, "Stick tape", "Tape", owner, true, null, null, null);
+        when(itemRepository.searchItems(eq("stick"), eq(Double.MAX_VALUE), eq(0L), eq(Limit.of(2))))
+                .thenReturn(List.of(scored(item.getId(), 1.0), scored(other.getId(), 1.0)));
+        when(itemRepository.findAllById(List.of(item.getId()))).thenReturn(List.of(item));
+
+        ItemSearchPage first = service.searchItems(
+                new ItemSearchQuery("stick", 1, false, null, null, false, null));
+
+        assertEquals(List.of(item.getId()), first.items().stream().map(ItemResponseDto::getId).toList());
+        assertEquals(new ItemSearchIndex.SearchHit(item.getId(), 1.0), SearchCursor.decode(first.nextCursor()));
+
+        when(itemRepository.searchItems(eq("stick"), eq(1.0), eq(item.getId()), eq(Limit.of(2))))
+                .thenReturn(List.of(scored(other.getId(), 1.0)));
+        when(itemRepository.findAllById(List.of(other.getId()))).thenReturn(List.of(other));
+
+        ItemSearchPage second = service.searchItems(
+                new ItemSearchQuery("stick", 1, false, null, null, false, first.nextCursor()));
+
+        assertEquals(List.of(other.getId()), second.items().stream().map(ItemResponseDto::getId).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void searchItems_invalidCursor() {
+        assertThrows(BadRequestException.class,
+                () -> service.searchItems(new ItemSearchQuery("stick", null, false, null, null, false, "???")));
+    }
+
+    @Test
+    void searchItemsFullText_success() {
+        searchProperties.setMode(ItemSearchProperties.Mode.FULL_TEXT);
+        when(itemRepository.searchItemsFullText("stick", Double.MAX_VALUE, 0L, 6))
+                .thenReturn(List.of(scored(item.getId(), 1.5)));
+        when(itemRepository.findAllById(List.of(item.getId()))).thenReturn(List.of(item));
+
+        ItemSearchPage result = service.searchItems(
+                new ItemSearchQuery("Stick", 5, false, null, null, false, null));
+
+        assertEquals(1, result.items().size());
+        verify(itemRepository, never()).searchItems(anyString(), anyDouble(), anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void searchItemsFuzzy_fullTextUsesTrigramQuery() {
+        searchProperties.setMode(ItemSearchProperties.Mode.FULL_TEXT);
+        when(itemRepository.searchItemsFuzzy("stik", Double.MAX_VALUE, 0L, 101))
+                .thenReturn(List.of(scored(item.getId(), 0.8)));
+        when(itemRepository.findAllById(List.of(item.getId()))).thenReturn(List.of(item));
+
+        ItemSearchPage result = service.searchItems(
+                new ItemSearchQuery("stik", null, true, null, null, false, null));
+
+        assertEquals(1, result.items().size());
+        verify(itemRepository, never()).searchItemsFullText(anyString(), anyDouble(), anyLong(), anyInt());
+    }
+
+    @Test
+    void searchItemsIndexed_success() {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("stick", 101, false, Set.of(), SearchCursor.FIRST))
+                .thenReturn(List.of(new ItemSearchIndex.SearchHit(item.getId(), 1.5)));
+        when(itemRepository.findAllById(List.of(item.getId())))
                 .thenReturn(List.of(item));
 
-        List<ItemResponseDto> result = service.searchItems("stick");
+        ItemSearchPage result = service.searchItems(ItemSearchQuery.of("stick"));
 
-        assertEquals(1, result.size());
-        assertEquals("Hockey stick", result.getFirst().getName());
+        assertEquals(1, result.items().size());
+        assertEquals(item.getId(), result.items().getFirst().getId());
+        verify(itemRepository, never()).searchItems(anyString(), anyDouble(), anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void searchItemsFreeBetween_success() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+        when(itemRepository.searchItemsFreeBetween(eq("stick"), eq(start), eq(end),
+                eq(List.of(BookingStatus.APPROVED, BookingStatus.WAITING)), anyDouble(), anyLong(), any(Limit.class)))
+                .thenReturn(List.of(scored(item.getId(), 1.0)));
+        when(itemRepository.findAllById(List.of(item.getId()))).thenReturn(List.of(item));
+
+        ItemSearchPage result = service.searchItems(
+                new ItemSearchQuery("stick", null, false, start, end, true, null));
+
+        assertEquals(1, result.items().size());
+        verify(itemRepository, never()).searchItems(anyString(), anyDouble(), anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void searchItemsIndexedFreeBetween_excludesBookedItems() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.matchingIds("stick", false)).thenReturn(Set.of(item.getId(), 2L));
+        when(bookingRepository.findItemIdsBookedBetween(argThat(ids -> ids.containsAll(List.of(item.getId(), 2L))),
+                eq(start), eq(end), eq(List.of(BookingStatus.APPROVED))))
+                .thenReturn(Set.of(item.getId()));
+        when(searchIndex.search("stick", 101, false, Set.of(item.getId()), SearchCursor.FIRST))
+                .thenReturn(List.of());
+
+        ItemSearchPage result = service.searchItems(
+                new ItemSearchQuery("stick", null, false, start, end, false, null));
+
+        assertTrue(result.items().isEmpty());
+        verify(itemRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void searchItemsFreeBetween_invalidPeriod() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(BadRequestException.class,
+                () -> service.searchItems(new ItemSearchQuery("stick", null, false, start, null, false, null)));
+        assertThrows(BadRequestException.class,
+                () -> service.searchItems(new ItemSearchQuery("stick", null, false, start, start, false, null)));
+    }
+
+    @Test
+    void suggest_delegatesToSuggester() {
+        when(suggester.suggest("st", 3)).thenReturn(List.of("stick", "stand"));
+
+        List<String> result = service.suggest("st", 3);
+
+        assertEquals(List.of("stick", "stand"), result);
+    }
+
+    private static AdjacentBooking adjacent(long itemId, long bookingId, boolean last) {
+        return new AdjacentBooking() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getBookingId() {
+                return bookingId;
+            }
+
+            @Override
+            public Boolean getLast() {
+                return last;
+            }
+        };
+    }
+
+    private static ScoredItemId scored(long id, double score) {
+        return new ScoredItemId() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Double getScore() {
+                return score;
+            }
+        };
     }
-}
\ No newline at end of file
+}
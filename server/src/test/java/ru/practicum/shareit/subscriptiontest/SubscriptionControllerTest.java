@@ -0,0 +1,79 @@
+package ru.practicum.shareit.subscriptiontest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exception.ForbiddenException;
+import ru.practicum.shareit.subscription.dto.SubscriptionCreateDto;
+import ru.practicum.shareit.subscription.dto.SubscriptionMatchDto;
+import ru.practicum.shareit.subscription.dto.SubscriptionResponseDto;
+import ru.practicum.shareit.subscription.service.SubscriptionService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class SubscriptionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @MockBean
+    private SubscriptionService service;
+
+    private static final Long USER_ID = 1L;
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 7, 28, 5, 27);
+
+    @Test
+    void create_success() throws Exception {
+        SubscriptionCreateDto input = new SubscriptionCreateDto("Cordless drill");
+        given(service.create(eq(USER_ID), any(SubscriptionCreateDto.class)))
+                .willReturn(new SubscriptionResponseDto(10L, "cordless drill", CREATED));
+
+        mockMvc.perform(post("/subscriptions")
+                        .header("X-Sharer-User-Id", USER_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(input)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(10L))
+                .andExpect(jsonPath("$.keywords").value("cordless drill"));
+    }
+
+    @Test
+    void getInbox_success() throws Exception {
+        SubscriptionMatchDto match = new SubscriptionMatchDto(3L, 10L, "drill", 5L, "Drill", CREATED);
+        given(service.getInbox(USER_ID, 0, 10)).willReturn(List.of(match));
+
+        mockMvc.perform(get("/subscriptions/inbox")
+                        .header("X-Sharer-User-Id", USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].itemId").value(5L))
+                .andExpect(jsonPath("$[0].subscriptionId").value(10L));
+    }
+
+    @Test
+    void delete_throwForbidden() throws Exception {
+        doThrow(new ForbiddenException("Not the owner")).when(service).delete(USER_ID, 10L);
+
+        mockMvc.perform(delete("/subscriptions/10")
+                        .header("X-Sharer-User-Id", USER_ID))
+                .andExpect(status().isForbidden());
+    }
+}
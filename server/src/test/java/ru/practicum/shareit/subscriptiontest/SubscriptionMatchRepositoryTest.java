@@ -0,0 +1,65 @@
+package ru.practicum.shareit.subscriptiontest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.subscription.model.Subscription;
+import ru.practicum.shareit.subscription.model.SubscriptionMatch;
+import ru.practicum.shareit.subscription.repository.SubscriptionMatchRepository;
+import ru.practicum.shareit.subscription.repository.SubscriptionRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class SubscriptionMatchRepositoryTest {
+
+    @Autowired
+    private SubscriptionMatchRepository matchRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void clear() {
+        matchRepository.deleteAll();
+        subscriptionRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findInbox_returnsNewestMatchesOfSubscriber() {
+        User subscriber = userRepository.save(new User(null, "Ivan", "ivan@yandex.ru"));
+        User other = userRepository.save(new User(null, "Elena", "elena@yandex.ru"));
+        Item drill = itemRepository.save(new Item(null, "Drill", "Cordless drill", other, true, null, null, null));
+        Item saw = itemRepository.save(new Item(null, "Saw", "Electric saw", other, true, null, null, null));
+        Subscription tools = subscriptionRepository.save(
+                new Subscription(null, "drill", subscriber, LocalDateTime.now()));
+        Subscription foreign = subscriptionRepository.save(
+                new Subscription(null, "saw", other, LocalDateTime.now()));
+        SubscriptionMatch first = matchRepository.save(new SubscriptionMatch(null, tools, drill, LocalDateTime.now()));
+        SubscriptionMatch second = matchRepository.save(new SubscriptionMatch(null, tools, saw, LocalDateTime.now()));
+        matchRepository.save(new SubscriptionMatch(null, foreign, saw, LocalDateTime.now()));
+
+        List<SubscriptionMatch> inbox = matchRepository.findInbox(subscriber.getId(), PageRequest.of(0, 10));
+        assertEquals(List.of(second.getId(), first.getId()), inbox.stream().map(SubscriptionMatch::getId).toList());
+
+        matchRepository.deleteBySubscriptionId(tools.getId());
+        assertTrue(matchRepository.findInbox(subscriber.getId(), PageRequest.of(0, 10)).isEmpty());
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.subscriptiontest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.subscription.matcher.KeywordAutomaton;
+import ru.practicum.shareit.subscription.matcher.SubscriptionMatcher;
+import ru.practicum.shareit.subscription.model.Subscription;
+import ru.practicum.shareit.subscription.repository.SubscriptionRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SubscriptionMatcherTest {
+
+    @Mock
+    SubscriptionRepository subscriptionRepository;
+
+    private SubscriptionMatcher matcher;
+    private User subscriber;
+
+    @BeforeEach
+    void setUp() {
+        matcher = new SubscriptionMatcher(subscriptionRepository);
+        subscriber = new User(1L, "Ivan", "ivan@yandex.ru");
+    }
+
+    @Test
+    void automaton_findsOverlappingKeywordsAtWordStarts() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of("he", "she", "hers", "drill", "ill"));
+
+        assertEquals(Set.of("she", "he", "hers"), automaton.find("ushers! She, HERS"));
+        assertEquals(Set.of("drill"), automaton.find("Cordless drills, still"));
+        assertTrue(automaton.find("").isEmpty());
+        assertTrue(new KeywordAutomaton(List.of()).find("anything").isEmpty());
+    }
+
+    @Test
+    void match_requiresEveryKeywordOfSubscription() {
+        when(subscriptionRepository.findAll()).thenReturn(List.of(
+                subscription(1L, "cordless drill"),
+                subscription(2L, "drill"),
+                subscription(3L, "hockey stick")));
+        matcher.rebuild();
+
+        assertEquals(Set.of(1L, 2L), matcher.match("Drill Cordless drill with two batteries"));
+        assertEquals(Set.of(2L), matcher.match("Hammer drill"));
+        assertTrue(matcher.match("Stick for hockey fans").contains(3L));
+        assertTrue(matcher.match("Saw").isEmpty());
+    }
+
+    @Test
+    void addAndRemove_refreshAutomaton() {
+        when(subscriptionRepository.findAll()).thenReturn(List.of());
+        matcher.rebuild();
+        Subscription tent = subscription(5L, "tent");
+
+        matcher.add(tent);
+        assertEquals(Set.of(5L), matcher.match("Camping tent"));
+
+        matcher.remove(tent);
+        assertTrue(matcher.match("Camping tent").isEmpty());
+    }
+
+    @Test
+    void match_scansTextOncePerItemRegardlessOfSubscriptionCount() {
+        List<Subscription> subscriptions = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            subscriptions.add(subscription(id, "tag" + id + "x common"));
+        }
+        when(subscriptionRepository.findAll()).thenReturn(subscriptions);
+        matcher.rebuild();
+
+        assertEquals(Set.of(17L), matcher.match("tag17x Common item"));
+    }
+
+    private Subscription subscription(Long id, String keywords) {
+        return new Subscription(id, keywords, subscriber, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.subscriptiontest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ForbiddenException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.subscription.dto.SubscriptionCreateDto;
+import ru.practicum.shareit.subscription.dto.SubscriptionResponseDto;
+import ru.practicum.shareit.subscription.matcher.SubscriptionMatcher;
+import ru.practicum.shareit.subscription.model.Subscription;
+import ru.practicum.shareit.subscription.repository.SubscriptionMatchRepository;
+import ru.practicum.shareit.subscription.repository.SubscriptionRepository;
+import ru.practicum.shareit.subscription.service.SubscriptionServiceImpl;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SubscriptionServiceImplTest {
+
+    @Mock
+    SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    SubscriptionMatchRepository matchRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    SubscriptionMatcher matcher;
+
+    @InjectMocks
+    SubscriptionServiceImpl service;
+
+    private User subscriber;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        subscriber = new User(1L, "Ivan", "ivan@yandex.ru");
+        owner = new User(2L, "Elena", "elena@yandex.ru");
+    }
+
+    @Test
+    void create_normalizesKeywordsAndRegistersSubscription() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(subscriber));
+        when(subscriptionRepository.save(any(Subscription.class))).thenAnswer(inv -> {
+            Subscription s = inv.getArgument(0);
+            s.setId(10L);
+            return s;
+        });
+
+        SubscriptionResponseDto result = service.create(1L, new SubscriptionCreateDto("Cordless, DRILL drill"));
+
+        assertEquals(10L, result.getId());
+        assertEquals("cordless drill", result.getKeywords());
+        verify(matcher).add(argThat(s -> s.getId().equals(10L)));
+    }
+
+    @Test
+    void create_withoutKeywords() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(subscriber));
+
+        assertThrows(BadRequestException.class, () -> service.create(1L, new SubscriptionCreateDto("!!!")));
+        verify(subscriptionRepository, never()).save(any());
+    }
+
+    @Test
+    void delete_byOtherUser() {
+        Subscription subscription = new Subscription(10L, "drill", subscriber, LocalDateTime.now());
+        when(subscriptionRepository.findById(10L)).thenReturn(Optional.of(subscription));
+
+        assertThrows(ForbiddenException.class, () -> service.delete(2L, 10L));
+        verify(matcher, never()).remove(any());
+    }
+
+    @Test
+    void notifyMatches_recordsMatchesOfOtherUsers() {
+        Item item = new Item(5L, "Drill", "Cordless drill", owner, true, null, null, null);
+        Subscription own = new Subscription(11L, "drill", owner, LocalDateTime.now());
+        Subscription other = new Subscription(10L, "cordless drill", subscriber, LocalDateTime.now());
+        when(matcher.match("Drill Cordless drill")).thenReturn(Set.of(10L, 11L));
+        when(subscriptionRepository.findAllById(Set.of(10L, 11L))).thenReturn(List.of(other, own));
+
+        service.notifyMatches(item);
+
+        verify(matchRepository).saveAll(argThat(matches -> {
+            List<?> list = (List<?>) matches;
+            return list.size() == 1;
+        }));
+    }
+
+    @Test
+    void notifyMatches_skipsUnavailableItems() {
+        Item item = new Item(5L, "Drill", "Cordless drill", owner, false, null, null, null);
+
+        service.notifyMatches(item);
+
+        verifyNoInteractions(matcher, matchRepository);
+    }
+}